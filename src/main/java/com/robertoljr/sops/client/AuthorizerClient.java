@@ -0,0 +1,241 @@
+package com.robertoljr.sops.client;
+
+import com.robertoljr.sops.constant.transaction.OpenCircuitPolicy;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.jfr.AuthorizerCallEvent;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client for the external transfer authorizer.
+ * <p>
+ * Uses its own JDK {@link HttpClient} (HTTP/2 with HTTP/1.1 fallback, pooled keep-alive connections)
+ * with connect and read deadlines. When hedging is enabled, a second identical request is sent if
+ * the first has not answered within the hedge delay (a fixed value, or the observed p95) and the
+ * first successful answer wins. A {@link CircuitBreaker} stops calling a failing authorizer; while
+ * it is open, requests are either denied or rejected according to the {@link OpenCircuitPolicy}.
+ * <p>
+ * Metrics: {@code sops.authorizer.calls} counts {@link #authorize()} outcomes (AUTHORIZED, DENIED,
+ * ERROR, CIRCUIT_OPEN, CANCELLED), {@code sops.authorizer.requests} times each HTTP request including hedges,
+ * {@code sops.authorizer.hedges} counts hedged requests and {@code sops.authorizer.circuit.open}
+ * is 1 while the circuit is not closed. Each HTTP request is also recorded as a JFR
+ * {@link AuthorizerCallEvent} and traced as an {@code http.client.requests} span.
+ */
+@Component
+public class AuthorizerClient {
+
+    private final Logger logger = LoggerFactory.getLogger(AuthorizerClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String url;
+    private final boolean hedgeEnabled;
+    private final long hedgeDelayNanos;
+    private final LatencyWindow latencyWindow;
+    private final CircuitBreaker circuitBreaker;
+    private final OpenCircuitPolicy openCircuitPolicy;
+    // Hedged requests run here; the wrapper carries the caller's trace context onto the virtual threads
+    private final ExecutorService executor = ContextExecutorService.wrap(
+            Executors.newVirtualThreadPerTaskExecutor(), ContextSnapshotFactory.builder().build()::captureAll);
+    private final Map<String, Counter> callCounters = new HashMap<>();
+    private final Map<String, Timer> requestTimers = new HashMap<>();
+    private final Counter hedges;
+
+    public AuthorizerClient(
+            @Value("${sops.authorizer.url:https://util.devi.tools/api/v2/authorize}") String url,
+            @Value("${sops.authorizer.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${sops.authorizer.read-timeout-ms:2000}") long readTimeoutMs,
+            @Value("${sops.authorizer.hedge.enabled:false}") boolean hedgeEnabled,
+            @Value("${sops.authorizer.hedge.delay-ms:0}") long hedgeDelayMs,
+            @Value("${sops.authorizer.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${sops.authorizer.circuit-breaker.open-ms:10000}") long openMs,
+            @Value("${sops.authorizer.circuit-breaker.open-policy:REJECT}") OpenCircuitPolicy openCircuitPolicy,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        this.restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setObservationRegistry(observationRegistry);
+        this.url = url;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(hedgeDelayMs);
+        // Until enough samples exist, hedge after half of the read timeout
+        this.latencyWindow = new LatencyWindow(512, 0.95, TimeUnit.MILLISECONDS.toNanos(readTimeoutMs / 2));
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(openMs));
+        this.openCircuitPolicy = openCircuitPolicy;
+        for (String outcome : List.of("AUTHORIZED", "DENIED", "ERROR", "CIRCUIT_OPEN", "CANCELLED")) {
+            callCounters.put(outcome, Counter.builder("sops.authorizer.calls")
+                    .description("Authorization decisions, by outcome")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        for (String outcome : List.of("AUTHORIZED", "DENIED", "ERROR")) {
+            requestTimers.put(outcome, Timer.builder("sops.authorizer.requests")
+                    .description("HTTP requests to the authorizer, including hedges")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.hedges = Counter.builder("sops.authorizer.hedges")
+                .description("Hedged authorizer requests")
+                .register(meterRegistry);
+        Gauge.builder("sops.authorizer.circuit.open", circuitBreaker, breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the authorizer circuit is open or half-open")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return {@code true} if the authorizer approved the transfer, {@code false} if it denied it
+     * @throws TransactionCreationException if the authorizer could not give an answer
+     */
+    public boolean authorize() {
+        if (!circuitBreaker.tryAcquire()) {
+            logger.error("Authorizer circuit is {}, applying {} policy", circuitBreaker.getState(), openCircuitPolicy);
+            countCall("CIRCUIT_OPEN");
+            if (openCircuitPolicy == OpenCircuitPolicy.DENY) {
+                return false;
+            }
+            throw new TransactionCreationException("The authorization service is unavailable. Please try again later.");
+        }
+
+        try {
+            boolean authorized = hedgeEnabled ? callHedged() : call(false);
+            circuitBreaker.onSuccess();
+            countCall(authorized ? "AUTHORIZED" : "DENIED");
+            return authorized;
+        } catch (RuntimeException ex) {
+            // Interrupted by the caller, e.g. when pre-validation rejected the transfer first; this
+            // says nothing about the authorizer's health
+            if (Thread.currentThread().isInterrupted()) {
+                circuitBreaker.release();
+                countCall("CANCELLED");
+                throw ex;
+            }
+            circuitBreaker.onFailure();
+            countCall("ERROR");
+            logger.error("Exception: {}", ex.getMessage());
+            throw new TransactionCreationException("An unexpected error occurred while authorizing the transaction.");
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private boolean call(boolean hedge) {
+        AuthorizerCallEvent event = new AuthorizerCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = "ERROR";
+        try {
+            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            boolean authorized = response.getStatusCode() == HttpStatus.OK;
+            outcome = authorized ? "AUTHORIZED" : "DENIED";
+            return authorized;
+        } catch (HttpClientErrorException.Forbidden ex) {
+            // A denial is a valid answer, not an authorizer failure
+            logger.error("Forbidden exception: {}", ex.getMessage());
+            outcome = "DENIED";
+            return false;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            latencyWindow.record(elapsed);
+            requestTimers.get(outcome).record(elapsed, TimeUnit.NANOSECONDS);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.hedge = hedge;
+                event.commit();
+            }
+        }
+    }
+
+    private void countCall(String outcome) {
+        callCounters.get(outcome).increment();
+    }
+
+    private boolean callHedged() {
+        CompletableFuture<Boolean> primary = CompletableFuture.supplyAsync(() -> call(false), executor);
+        long delay = hedgeDelayNanos > 0 ? hedgeDelayNanos : latencyWindow.percentileNanos();
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            logger.info("Authorizer slower than {} ms, sending hedged request", TimeUnit.NANOSECONDS.toMillis(delay));
+            hedges.increment();
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the authorizer", ex);
+        }
+
+        CompletableFuture<Boolean> hedge = CompletableFuture.supplyAsync(() -> call(true), executor);
+        CompletableFuture<Boolean> firstSuccess = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<Boolean> attempt : List.of(primary, hedge)) {
+            attempt.whenComplete((authorized, error) -> {
+                if (error == null) {
+                    firstSuccess.complete(authorized);
+                } else if (failures.incrementAndGet() == 2) {
+                    firstSuccess.completeExceptionally(error);
+                }
+            });
+        }
+
+        try {
+            return firstSuccess.get();
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the authorizer", ex);
+        } finally {
+            primary.cancel(true);
+            hedge.cancel(true);
+        }
+    }
+
+    private RuntimeException unwrap(ExecutionException ex) {
+        Throwable cause = ex.getCause() instanceof CompletionException ? ex.getCause().getCause() : ex.getCause();
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(cause);
+    }
+}
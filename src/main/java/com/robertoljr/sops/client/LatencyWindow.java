@@ -0,0 +1,40 @@
+package com.robertoljr.sops.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding window of the most recent call latencies, used to derive the hedging delay.
+ * The percentile is recomputed every {@code size / 4} samples rather than on every call.
+ */
+class LatencyWindow {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+    private volatile long cachedPercentileNanos;
+
+    LatencyWindow(int size, double percentile, long initialNanos) {
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+        this.cachedPercentileNanos = initialNanos;
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        if (n >= samples.length() && n % (samples.length() / 4) == 0) {
+            long[] copy = new long[samples.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = samples.get(i);
+            }
+            Arrays.sort(copy);
+            cachedPercentileNanos = copy[(int) Math.ceil(percentile * copy.length) - 1];
+        }
+    }
+
+    long percentileNanos() {
+        return cachedPercentileNanos;
+    }
+}
@@ -0,0 +1,143 @@
+package com.robertoljr.sops.client;
+
+import com.robertoljr.sops.constant.transaction.OpenCircuitPolicy;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking client for the external transfer authorizer, used by the "reactive" profile.
+ * <p>
+ * Same contract as {@link AuthorizerClient#authorize()}: the Mono emits {@code true} when the
+ * authorizer approved the transfer and {@code false} when it denied it, and fails with a
+ * {@link TransactionCreationException} when no answer could be obtained. A waiting call holds no
+ * thread, so requests are not hedged. It has its own {@link CircuitBreaker} and records into the
+ * same {@code sops.authorizer.calls} and {@code sops.authorizer.requests} meters.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAuthorizerClient {
+
+    private final Logger logger = LoggerFactory.getLogger(ReactiveAuthorizerClient.class);
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final OpenCircuitPolicy openCircuitPolicy;
+    private final MeterRegistry meterRegistry;
+
+    // The builder is Boot's, so each request is observed as an http.client.requests span
+    public ReactiveAuthorizerClient(
+            WebClient.Builder webClientBuilder,
+            @Value("${sops.authorizer.url:https://util.devi.tools/api/v2/authorize}") String url,
+            @Value("${sops.authorizer.connect-timeout-ms:1000}") int connectTimeoutMs,
+            @Value("${sops.authorizer.read-timeout-ms:2000}") long readTimeoutMs,
+            @Value("${sops.authorizer.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${sops.authorizer.circuit-breaker.open-ms:10000}") long openMs,
+            @Value("${sops.authorizer.circuit-breaker.open-policy:REJECT}") OpenCircuitPolicy openCircuitPolicy,
+            MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        this.webClient = webClientBuilder
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(openMs));
+        this.openCircuitPolicy = openCircuitPolicy;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<Boolean> authorize() {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                logger.error("Authorizer circuit is {}, applying {} policy", circuitBreaker.getState(), openCircuitPolicy);
+                countCall("CIRCUIT_OPEN");
+                if (openCircuitPolicy == OpenCircuitPolicy.DENY) {
+                    return Mono.just(false);
+                }
+                return Mono.error(new TransactionCreationException("The authorization service is unavailable. Please try again later."));
+            }
+
+            AtomicBoolean answered = new AtomicBoolean();
+            return call()
+                    .doOnNext(authorized -> {
+                        answered.set(true);
+                        circuitBreaker.onSuccess();
+                        countCall(authorized ? "AUTHORIZED" : "DENIED");
+                    })
+                    // Cancelled by the subscriber before an answer; says nothing about the authorizer's health
+                    .doOnCancel(() -> {
+                        if (answered.compareAndSet(false, true)) {
+                            circuitBreaker.release();
+                            countCall("CANCELLED");
+                        }
+                    })
+                    .onErrorMap(ex -> !(ex instanceof TransactionCreationException), ex -> {
+                        answered.set(true);
+                        circuitBreaker.onFailure();
+                        countCall("ERROR");
+                        logger.error("Exception: {}", ex.getMessage());
+                        return new TransactionCreationException("An unexpected error occurred while authorizing the transaction.");
+                    });
+        });
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private Mono<Boolean> call() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.get()
+                    .retrieve()
+                    .toBodilessEntity()
+                    .map(response -> response.getStatusCode() == HttpStatus.OK)
+                    // A denial is a valid answer, not an authorizer failure
+                    .onErrorResume(WebClientResponseException.Forbidden.class, ex -> {
+                        logger.error("Forbidden exception: {}", ex.getMessage());
+                        return Mono.just(false);
+                    })
+                    .doOnEach(signal -> {
+                        if (signal.isOnNext() || signal.isOnError()) {
+                            String outcome = signal.isOnError() ? "ERROR" : Boolean.TRUE.equals(signal.get()) ? "AUTHORIZED" : "DENIED";
+                            recordRequest(outcome, System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private void recordRequest(String outcome, long elapsedNanos) {
+        Timer.builder("sops.authorizer.requests")
+                .description("HTTP requests to the authorizer, including hedges")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void countCall(String outcome) {
+        Counter.builder("sops.authorizer.calls")
+                .description("Authorization decisions, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
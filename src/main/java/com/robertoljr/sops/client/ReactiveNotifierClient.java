@@ -0,0 +1,50 @@
+package com.robertoljr.sops.client;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+// Non-blocking call to the external notifier, used by the "reactive" profile when the outbox is
+// disabled; the Mono emits whether the notifier accepted the notification and never fails
+@Component
+@Profile("reactive")
+public class ReactiveNotifierClient {
+
+    private final Logger logger = LoggerFactory.getLogger(ReactiveNotifierClient.class);
+
+    private final WebClient webClient;
+
+    public ReactiveNotifierClient(
+            WebClient.Builder webClientBuilder,
+            @Value("${sops.notifier.url:https://util.devi.tools/api/v1/notify}") String url,
+            @Value("${sops.notifier.connect-timeout-ms:1000}") int connectTimeoutMs,
+            @Value("${sops.notifier.read-timeout-ms:5000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        this.webClient = webClientBuilder
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    public Mono<Boolean> send() {
+        return webClient.get()
+                .retrieve()
+                .toBodilessEntity()
+                .map(response -> response.getStatusCode().is2xxSuccessful())
+                .onErrorResume(ex -> {
+                    logger.error("Exception: {}", ex.getMessage());
+                    return Mono.just(false);
+                });
+    }
+}
@@ -1,14 +1,29 @@
 package com.robertoljr.sops.config;
 
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class AppConfig {
 
+    // Used for the notifier; without deadlines a provider that never answers holds the caller forever
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            @Value("${sops.notifier.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${sops.notifier.read-timeout-ms:5000}") long readTimeoutMs,
+            ObservationRegistry observationRegistry) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // Each call becomes an http.client.requests span carrying the trace context to the notifier
+        restTemplate.setObservationRegistry(observationRegistry);
+        return restTemplate;
     }
 }
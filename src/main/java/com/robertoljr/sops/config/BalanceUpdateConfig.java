@@ -0,0 +1,37 @@
+package com.robertoljr.sops.config;
+
+import com.robertoljr.sops.constant.transaction.BalanceUpdateMode;
+import com.robertoljr.sops.repository.UserRepository;
+import com.robertoljr.sops.service.UserService;
+import com.robertoljr.sops.service.balance.BalanceUpdateStrategy;
+import com.robertoljr.sops.service.balance.ConditionalBalanceUpdateStrategy;
+import com.robertoljr.sops.service.balance.OptimisticBalanceUpdateStrategy;
+import com.robertoljr.sops.service.balance.PessimisticBalanceUpdateStrategy;
+import com.robertoljr.sops.service.balance.StripedBalanceUpdateStrategy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BalanceUpdateConfig {
+
+    @Bean
+    public BalanceUpdateStrategy balanceUpdateStrategy(
+            @Value("${sops.transaction.balance-update-mode:PESSIMISTIC}") BalanceUpdateMode mode,
+            @Value("${sops.transaction.optimistic-max-attempts:5}") int optimisticMaxAttempts,
+            @Value("${sops.balance-striping.enabled:false}") boolean stripingEnabled,
+            @Value("${sops.balance-striping.stripes:16}") int stripes,
+            UserRepository userRepository,
+            UserService userService,
+            EntityManager entityManager) {
+        BalanceUpdateStrategy strategy = switch (mode) {
+            case PESSIMISTIC -> new PessimisticBalanceUpdateStrategy(entityManager);
+            case OPTIMISTIC -> new OptimisticBalanceUpdateStrategy(userRepository, optimisticMaxAttempts);
+            case CONDITIONAL -> new ConditionalBalanceUpdateStrategy(userRepository);
+        };
+
+        // Merchant credits go to balance stripes; every other transfer still uses the configured mode
+        return stripingEnabled ? new StripedBalanceUpdateStrategy(strategy, userRepository, userService, stripes) : strategy;
+    }
+}
@@ -0,0 +1,31 @@
+package com.robertoljr.sops.config;
+
+import io.micrometer.observation.ObservationPredicate;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+@Configuration
+public class TracingConfig {
+
+    // Logs every finished span, for local runs and benchmarks without a collector; OTLP export is
+    // switched on separately through management.otlp.tracing.endpoint
+    @Bean
+    @ConditionalOnProperty(name = "sops.tracing.logging-exporter.enabled", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+
+    // Prometheus scrapes and health checks would otherwise add a trace every few seconds; the second
+    // context type is the one WebFlux uses under the reactive profile
+    @Bean
+    public ObservationPredicate skipActuatorObservations() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext serverContext
+                && serverContext.getCarrier().getRequestURI().startsWith("/actuator"))
+                && !(context instanceof org.springframework.http.server.reactive.observation.ServerRequestObservationContext reactiveContext
+                && reactiveContext.getCarrier().getPath().value().startsWith("/actuator"));
+    }
+}
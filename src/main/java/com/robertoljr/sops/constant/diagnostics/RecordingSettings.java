@@ -0,0 +1,18 @@
+package com.robertoljr.sops.constant.diagnostics;
+
+// JFR settings files shipped with the JDK: DEFAULT is meant for always-on use (about 1% overhead),
+// PROFILE samples more often and adds allocation and lock detail (about 2%)
+public enum RecordingSettings {
+    DEFAULT("default"),
+    PROFILE("profile");
+
+    private final String configurationName;
+
+    RecordingSettings(String configurationName) {
+        this.configurationName = configurationName;
+    }
+
+    public String configurationName() {
+        return configurationName;
+    }
+}
@@ -0,0 +1,5 @@
+package com.robertoljr.sops.constant.transaction;
+
+public enum ExportFormat {
+    NDJSON, CSV
+}
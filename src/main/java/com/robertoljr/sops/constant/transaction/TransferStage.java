@@ -0,0 +1,16 @@
+package com.robertoljr.sops.constant.transaction;
+
+// Stages of createTransaction timed by TransferMetrics; which ones run depends on the TransferExecutionMode
+public enum TransferStage {
+    VALIDATION,
+    AUTHORIZATION,
+    BALANCE_UPDATE,
+    INSERT,
+    NOTIFICATION,
+    // Statements Hibernate deferred to the flush (inserts with pooled ids, dirty balances) run here
+    COMMIT,
+    // DATABASE_FUNCTION mode: validation, balances, insert and notification in one call
+    PERFORM_TRANSFER,
+    // LEDGER mode: waiting for the ledger partition to apply and journal the transfer
+    LEDGER
+}
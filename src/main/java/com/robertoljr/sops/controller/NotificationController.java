@@ -2,6 +2,7 @@ package com.robertoljr.sops.controller;
 
 import com.robertoljr.sops.constant.notification.Status;
 import com.robertoljr.sops.controller.docs.NotificationControllerDocs;
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.notification.NotificationCreateDTO;
 import com.robertoljr.sops.dto.notification.NotificationResponseDTO;
 import com.robertoljr.sops.dto.notification.NotificationUpdateStatusDTO;
@@ -14,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -37,8 +37,8 @@ public class NotificationController implements NotificationControllerDocs {
 
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<NotificationResponseDTO>> findAllNotifications() {
-        return ResponseEntity.ok(notificationService.findAllNotifications());
+    public ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findAllNotifications(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(notificationService.findAllNotifications(cursor, size));
     }
 
     @GetMapping(value = "/{id}",
@@ -51,29 +51,29 @@ public class NotificationController implements NotificationControllerDocs {
     @GetMapping(value = "/userId/{userId}",
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<NotificationResponseDTO>> findNotificationsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(notificationService.findNotificationByUserId(userId));
+    public ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findNotificationsByUserId(@PathVariable Long userId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(notificationService.findNotificationByUserId(userId, cursor, size));
     }
 
     @GetMapping(value = "/transactionId/{transactionId}",
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<NotificationResponseDTO>> findNotificationByTransactionId(@PathVariable Long transactionId) {
-        return ResponseEntity.ok(notificationService.findNotificationByTransactionId(transactionId));
+    public ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findNotificationByTransactionId(@PathVariable Long transactionId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(notificationService.findNotificationByTransactionId(transactionId, cursor, size));
     }
 
     @GetMapping(value = "/status/{status}",
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<NotificationResponseDTO>> findNotificationByStatus(@PathVariable Status status) {
-        return ResponseEntity.ok(notificationService.findNotificationByStatus(status));
+    public ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findNotificationByStatus(@PathVariable Status status, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(notificationService.findNotificationByStatus(status, cursor, size));
     }
 
     @GetMapping(value = "/after/{start}/before/{end}",
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<NotificationResponseDTO>> findNotificationsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end) {
-        return ResponseEntity.ok(notificationService.findNotificationByCreatedAtBetween(start, end));
+    public ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findNotificationsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(notificationService.findNotificationByCreatedAtBetween(start, end, cursor, size));
     }
 
     @PutMapping(value = "/{id}/status",
@@ -0,0 +1,123 @@
+package com.robertoljr.sops.controller;
+
+import com.robertoljr.sops.constant.transaction.ExportFormat;
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.dto.CursorPageDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionBatchDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionBatchDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.dto.transaction.TransactionExportFilterDTO;
+import com.robertoljr.sops.dto.transaction.UpdateStatusDTO;
+import com.robertoljr.sops.service.ReactiveTransactionService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+// WebFlux variant of TransactionController, active with the "reactive" profile; same paths, bodies
+// and statuses. springdoc only documents the servlet stack, so there is no docs interface here.
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/transactions")
+public class ReactiveTransactionController {
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String CSV_VALUE = "text/csv";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final ReactiveTransactionService transactionService;
+
+    @Autowired
+    public ReactiveTransactionController(ReactiveTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @PostMapping(
+            consumes = {MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<ResponseTransactionDTO>> createTransaction(@Valid @RequestBody CreateTransactionDTO transactionCreateDTO,
+                                                                          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return transactionService.createTransaction(transactionCreateDTO, idempotencyKey)
+                .map(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction));
+    }
+
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<ResponseTransactionBatchDTO>> createTransactions(@Valid @RequestBody CreateTransactionBatchDTO transactionBatchDTO) {
+        return transactionService.createTransactions(transactionBatchDTO).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<CursorPageDTO<ResponseTransactionDTO>>> findAllTransactions(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return transactionService.findAllTransactions(cursor, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<ResponseTransactionDTO>> findTransactionById(@PathVariable Long id) {
+        return transactionService.findTransactionById(id).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/senderId/{senderId}", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<CursorPageDTO<ResponseTransactionDTO>>> findTransactionBySenderId(@PathVariable Long senderId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return transactionService.findTransactionsBySenderId(senderId, cursor, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/recipientId/{recipientId}", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<CursorPageDTO<ResponseTransactionDTO>>> findTransactionByRecipientId(@PathVariable Long recipientId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return transactionService.findTransactionsByRecipientId(recipientId, cursor, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/status/{status}", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<CursorPageDTO<ResponseTransactionDTO>>> findTransactionsByStatus(@PathVariable Status status, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return transactionService.findTransactionsByStatus(status, cursor, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/after/{start}/before/{end}", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<CursorPageDTO<ResponseTransactionDTO>>> findTransactionsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return transactionService.findTransactionsByCreatedAtBetween(start, end, cursor, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/export")
+    public ResponseEntity<Flux<DataBuffer>> exportTransactions(@RequestParam(required = false) Long senderId,
+                                                               @RequestParam(required = false) Long recipientId,
+                                                               @RequestParam(required = false) Status status,
+                                                               @RequestParam(required = false) Instant start,
+                                                               @RequestParam(required = false) Instant end,
+                                                               @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        TransactionExportFilterDTO filter = new TransactionExportFilterDTO(senderId, recipientId, status, start, end);
+        boolean csv = format == ExportFormat.CSV;
+
+        // Lines are already encoded, so no codec re-encodes them as JSON strings
+        Flux<DataBuffer> body = transactionService.exportTransactions(filter, format)
+                .map(line -> DefaultDataBufferFactory.sharedInstance.wrap(line.getBytes(StandardCharsets.UTF_8)));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? CSV_VALUE : NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    @PutMapping(value = "/{id}",
+            consumes = {MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<ResponseTransactionDTO>> updateStatus(@PathVariable Long id, @Valid @RequestBody UpdateStatusDTO status) {
+        return transactionService.updateStatus(id, status).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping(value = "/{id}")
+    public Mono<ResponseEntity<Void>> deleteTransaction(@PathVariable Long id) {
+        return transactionService.deleteTransaction(id).thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+}
@@ -1,45 +1,70 @@
 package com.robertoljr.sops.controller;
 
+import com.robertoljr.sops.constant.transaction.ExportFormat;
 import com.robertoljr.sops.constant.transaction.Status;
 import com.robertoljr.sops.controller.docs.TransactionControllerDocs;
+import com.robertoljr.sops.dto.CursorPageDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionBatchDTO;
 import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionBatchDTO;
 import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.dto.transaction.TransactionExportFilterDTO;
 import com.robertoljr.sops.dto.transaction.UpdateStatusDTO;
 import com.robertoljr.sops.dto.user.*;
+import com.robertoljr.sops.service.TransactionExportService;
 import com.robertoljr.sops.service.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
-import java.util.List;
 
+// Servlet stack; ReactiveTransactionController serves the same paths under the "reactive" profile
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/transactions")
 public class TransactionController implements TransactionControllerDocs {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String CSV_VALUE = "text/csv";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionExportService transactionExportService) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
     }
 
     @PostMapping(
             consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE},
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<ResponseTransactionDTO> createTransaction(@Valid @RequestBody CreateTransactionDTO transactionCreateDTO) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.createTransaction(transactionCreateDTO));
+    public ResponseEntity<ResponseTransactionDTO> createTransaction(@Valid @RequestBody CreateTransactionDTO transactionCreateDTO,
+                                                                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.createTransaction(transactionCreateDTO, idempotencyKey));
+    }
+
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<ResponseTransactionBatchDTO> createTransactions(@Valid @RequestBody CreateTransactionBatchDTO transactionBatchDTO) {
+        return ResponseEntity.ok(transactionService.createTransactions(transactionBatchDTO));
     }
 
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<ResponseTransactionDTO>> findAllTransactions() {
-        return ResponseEntity.ok(transactionService.findAllTransactions());
+    public ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findAllTransactions(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(transactionService.findAllTransactions(cursor, size));
     }
 
     @GetMapping(value = "/{id}",
@@ -52,29 +77,48 @@ public class TransactionController implements TransactionControllerDocs {
     @GetMapping(value = "/senderId/{senderId}",
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<ResponseTransactionDTO>> findTransactionBySenderId(@PathVariable Long senderId) {
-        return ResponseEntity.ok(transactionService.findTransactionsBySenderId(senderId));
+    public ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findTransactionBySenderId(@PathVariable Long senderId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(transactionService.findTransactionsBySenderId(senderId, cursor, size));
     }
 
     @GetMapping(value = "/recipientId/{recipientId}",
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<ResponseTransactionDTO>> findTransactionByRecipientId(@PathVariable Long recipientId) {
-        return ResponseEntity.ok(transactionService.findTransactionsByRecipientId(recipientId));
+    public ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findTransactionByRecipientId(@PathVariable Long recipientId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(transactionService.findTransactionsByRecipientId(recipientId, cursor, size));
     }
 
     @GetMapping(value = "/status/{status}",
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<ResponseTransactionDTO>> findTransactionsByStatus(@PathVariable Status status) {
-        return ResponseEntity.ok(transactionService.findTransactionsByStatus(status));
+    public ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByStatus(@PathVariable Status status, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(transactionService.findTransactionsByStatus(status, cursor, size));
     }
 
     @GetMapping(value = "/after/{start}/before/{end}",
             produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<ResponseTransactionDTO>> findTransactionsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end) {
-        return ResponseEntity.ok(transactionService.findTransactionsByCreatedAtBetween(start, end));
+    public ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(transactionService.findTransactionsByCreatedAtBetween(start, end, cursor, size));
+    }
+
+    @GetMapping(value = "/export")
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(required = false) Long senderId,
+                                                                    @RequestParam(required = false) Long recipientId,
+                                                                    @RequestParam(required = false) Status status,
+                                                                    @RequestParam(required = false) Instant start,
+                                                                    @RequestParam(required = false) Instant end,
+                                                                    @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        TransactionExportFilterDTO filter = new TransactionExportFilterDTO(senderId, recipientId, status, start, end);
+        boolean csv = format == ExportFormat.CSV;
+
+        // The body is written on an async thread after this method returns, row by row from the database cursor
+        StreamingResponseBody body = out -> transactionExportService.exportTransactions(filter, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? CSV_VALUE : NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions." + (csv ? "csv" : "ndjson"))
+                .body(body);
     }
 
     @PutMapping(value = "/{id}",
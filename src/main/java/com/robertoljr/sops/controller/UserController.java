@@ -1,6 +1,7 @@
 package com.robertoljr.sops.controller;
 
 import com.robertoljr.sops.controller.docs.UserControllerDocs;
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.user.*;
 import com.robertoljr.sops.service.UserService;
 import jakarta.validation.Valid;
@@ -12,8 +13,6 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/users")
 public class UserController implements UserControllerDocs {
@@ -35,8 +34,8 @@ public class UserController implements UserControllerDocs {
 
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public ResponseEntity<List<UserResponseDTO>> findAllUsers() {
-        return ResponseEntity.ok(userService.findAllUsers());
+    public ResponseEntity<CursorPageDTO<UserResponseDTO>> findAllUsers(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.findAllUsers(cursor, size));
     }
 
     @GetMapping(value = "/{id}",
@@ -90,4 +89,11 @@ public class UserController implements UserControllerDocs {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping(value = "/cache/stats",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<UserCacheStatsDTO> findCacheStats() {
+        return ResponseEntity.ok(userService.findCacheStats());
+    }
 }
@@ -1,11 +1,11 @@
 package com.robertoljr.sops.controller.docs;
 
 import com.robertoljr.sops.constant.notification.Status;
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.notification.NotificationCreateDTO;
 import com.robertoljr.sops.dto.notification.NotificationResponseDTO;
 import com.robertoljr.sops.dto.notification.NotificationUpdateStatusDTO;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,9 +14,9 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.time.Instant;
-import java.util.List;
 
 public interface NotificationControllerDocs {
     @Operation(
@@ -38,7 +38,7 @@ public interface NotificationControllerDocs {
 
     @Operation(
             summary = "Find all notifications.",
-            description = "Finds all notifications registered in the system.",
+            description = "Finds all notifications registered in the system. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Notification"},
             responses = {
                     @ApiResponse(
@@ -47,7 +47,7 @@ public interface NotificationControllerDocs {
                             content = {
                                     @Content(
                                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                            array = @ArraySchema(schema = @Schema(implementation = NotificationResponseDTO.class))
+                                            schema = @Schema(implementation = CursorPageDTO.class)
                                     )
                             }),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
@@ -56,7 +56,7 @@ public interface NotificationControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<NotificationResponseDTO>> findAllNotifications();
+    ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findAllNotifications(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find a notification by ID.",
@@ -78,13 +78,13 @@ public interface NotificationControllerDocs {
 
     @Operation(
             summary = "Find notification by user ID.",
-            description = "Finds all notifications sent to the User with the passed in ID.",
+            description = "Finds all notifications sent to the User with the passed in ID. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Notification"},
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = NotificationResponseDTO.class))
+                            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -92,17 +92,17 @@ public interface NotificationControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<NotificationResponseDTO>> findNotificationsByUserId(@PathVariable Long userId);
+    ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findNotificationsByUserId(@PathVariable Long userId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find notifications by transaction ID.",
-            description = "Finds all notifications related to the transaction with the passed in ID.",
+            description = "Finds all notifications related to the transaction with the passed in ID. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Notification"},
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = NotificationResponseDTO.class))
+                            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -110,17 +110,17 @@ public interface NotificationControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<NotificationResponseDTO>> findNotificationByTransactionId(@PathVariable Long transactionId);
+    ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findNotificationByTransactionId(@PathVariable Long transactionId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find notifications with a particular status.",
-            description = "Finds all notifications with a particular Status.",
+            description = "Finds all notifications with a particular Status. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Notification"},
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = NotificationResponseDTO.class))
+                            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -128,17 +128,17 @@ public interface NotificationControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<NotificationResponseDTO>> findNotificationByStatus(@PathVariable Status status);
+    ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findNotificationByStatus(@PathVariable Status status, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find notification between Instants",
-            description = "Finds all notifications after a particular Instant and before a particular Instant.",
+            description = "Finds all notifications after a particular Instant and before a particular Instant. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Notification"},
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = NotificationResponseDTO.class))
+                            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -146,7 +146,7 @@ public interface NotificationControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<NotificationResponseDTO>> findNotificationsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end);
+    ResponseEntity<CursorPageDTO<NotificationResponseDTO>> findNotificationsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Update a notification's Status based on its ID.",
@@ -1,12 +1,14 @@
 package com.robertoljr.sops.controller.docs;
 
+import com.robertoljr.sops.constant.transaction.ExportFormat;
 import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.transaction.*;
 import com.robertoljr.sops.dto.user.UpdateEmailDTO;
 import com.robertoljr.sops.dto.user.UpdatePasswordDTO;
 import com.robertoljr.sops.dto.user.UpdatePhoneNumberDTO;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,14 +17,17 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
-import java.util.List;
 
 public interface TransactionControllerDocs {
     @Operation(
             summary = "Create a new transaction.",
-            description = "Creates a new Transaction by passing in a JSON, XML or YML representation of said transaction.",
+            description = "Creates a new Transaction by passing in a JSON, XML or YML representation of said transaction. " +
+                    "Requests repeated with the same Idempotency-Key header return the first result instead of creating another transaction.",
             tags = {"Transaction"},
             responses = {
                     @ApiResponse(
@@ -32,14 +37,35 @@ public interface TransactionControllerDocs {
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Conflict: a request with the same Idempotency-Key is still being processed", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Unprocessable Entity: the Idempotency-Key was used with a different request", responseCode = "422", content = @Content),
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<ResponseTransactionDTO> createTransaction(@Valid @RequestBody CreateTransactionDTO transactionCreateDTO);
+    ResponseEntity<ResponseTransactionDTO> createTransaction(@Valid @RequestBody CreateTransactionDTO transactionCreateDTO,
+                                                             @Parameter(description = "Client-chosen key, at most 255 characters, that makes retries safe")
+                                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey);
+
+    @Operation(
+            summary = "Create transactions in bulk.",
+            description = "Creates up to 10000 transactions, applied in chunks, and reports a SUCCEEDED, FAILED or REJECTED status for each item.",
+            tags = {"Transaction"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ResponseTransactionBatchDTO.class))
+                    ),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<ResponseTransactionBatchDTO> createTransactions(@Valid @RequestBody CreateTransactionBatchDTO transactionBatchDTO);
 
     @Operation(
             summary = "Find all transactions.",
-            description = "Finds all transactions registered in the system.",
+            description = "Finds all transactions registered in the system. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Transaction"},
             responses = {
                     @ApiResponse(
@@ -48,7 +74,7 @@ public interface TransactionControllerDocs {
                             content = {
                                     @Content(
                                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                            array = @ArraySchema(schema = @Schema(implementation = ResponseTransactionDTO.class))
+                                            schema = @Schema(implementation = CursorPageDTO.class)
                                     )
                             }),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
@@ -57,7 +83,7 @@ public interface TransactionControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<ResponseTransactionDTO>> findAllTransactions();
+    ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findAllTransactions(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find a transaction by ID.",
@@ -79,13 +105,13 @@ public interface TransactionControllerDocs {
 
     @Operation(
             summary = "Find transactions by sender ID.",
-            description = "Finds all transactions made by the User with the passed in ID.",
+            description = "Finds all transactions made by the User with the passed in ID. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Transaction"},
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = ResponseTransactionDTO.class))
+                            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -93,17 +119,17 @@ public interface TransactionControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<ResponseTransactionDTO>> findTransactionBySenderId(@PathVariable Long senderId);
+    ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findTransactionBySenderId(@PathVariable Long senderId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find transactions by recipient ID.",
-            description = "Finds all transactions made to the User with the passed in ID.",
+            description = "Finds all transactions made to the User with the passed in ID. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Transaction"},
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = ResponseTransactionDTO.class))
+                            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -111,17 +137,17 @@ public interface TransactionControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<ResponseTransactionDTO>> findTransactionByRecipientId(@PathVariable Long recipientId);
+    ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findTransactionByRecipientId(@PathVariable Long recipientId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find transactions with a particular status.",
-            description = "Finds all transactions with a particular Status.",
+            description = "Finds all transactions with a particular Status. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Transaction"},
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = ResponseTransactionDTO.class))
+                            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -129,17 +155,17 @@ public interface TransactionControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<ResponseTransactionDTO>> findTransactionsByStatus(@PathVariable Status status);
+    ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByStatus(@PathVariable Status status, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find transactions between Instants",
-            description = "Finds all transactions after a particular Instant and before a particular Instant.",
+            description = "Finds all transactions after a particular Instant and before a particular Instant. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"Transaction"},
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
-                            content = @Content(schema = @Schema(implementation = ResponseTransactionDTO.class))
+                            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
                     ),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
@@ -147,7 +173,25 @@ public interface TransactionControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<ResponseTransactionDTO>> findTransactionsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end);
+    ResponseEntity<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByCreatedAtBetween(@PathVariable Instant start, @PathVariable Instant end, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
+
+    @Operation(
+            summary = "Export transactions.",
+            description = "Streams every transaction matching the optional sender, recipient, status and createdAt filters as NDJSON or CSV, in creation order.",
+            tags = {"Transaction"},
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(required = false) Long senderId,
+                                                             @RequestParam(required = false) Long recipientId,
+                                                             @RequestParam(required = false) Status status,
+                                                             @RequestParam(required = false) Instant start,
+                                                             @RequestParam(required = false) Instant end,
+                                                             @RequestParam(defaultValue = "NDJSON") ExportFormat format);
 
     @Operation(
             summary = "Update a transaction's Status based on its ID.",
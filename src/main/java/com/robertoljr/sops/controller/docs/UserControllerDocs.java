@@ -1,8 +1,8 @@
 package com.robertoljr.sops.controller.docs;
 
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.user.*;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,8 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
-
-import java.util.List;
+import org.springframework.web.bind.annotation.RequestParam;
 
 public interface UserControllerDocs {
     @Operation(
@@ -34,7 +33,7 @@ public interface UserControllerDocs {
 
     @Operation(
             summary = "Find all users.",
-            description = "Finds all users registered in the system.",
+            description = "Finds all users registered in the system. Results are paged in creation order; pass nextCursor back as cursor to fetch the next page.",
             tags = {"User"},
             responses = {
                     @ApiResponse(
@@ -43,7 +42,7 @@ public interface UserControllerDocs {
                             content = {
                                     @Content(
                                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                            array = @ArraySchema(schema = @Schema(implementation = UserResponseDTO.class))
+                                            schema = @Schema(implementation = CursorPageDTO.class)
                                     )
                             }),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
@@ -52,7 +51,7 @@ public interface UserControllerDocs {
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<List<UserResponseDTO>> findAllUsers();
+    ResponseEntity<CursorPageDTO<UserResponseDTO>> findAllUsers(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size);
 
     @Operation(
             summary = "Find a user by ID.",
@@ -176,4 +175,20 @@ public interface UserControllerDocs {
             }
     )
     ResponseEntity<Void> deleteUser(@PathVariable Long id);
+
+    @Operation(
+            summary = "Get user cache statistics.",
+            description = "Returns the size, hit, miss and eviction counters of the user profile cache.",
+            tags = {"User"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = UserCacheStatsDTO.class))
+                    ),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            }
+    )
+    ResponseEntity<UserCacheStatsDTO> findCacheStats();
 }
@@ -0,0 +1,40 @@
+package com.robertoljr.sops.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Wraps the Hikari pool in a {@link BoundedDataSource} with one permit per pooled connection.
+ * Enabled by default together with virtual threads (sops.database.permits.enabled).
+ */
+@Component
+@ConditionalOnProperty(name = "sops.database.permits.enabled", havingValue = "true")
+public class BoundedDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(BoundedDataSourcePostProcessor.class);
+
+    private final long timeoutMs;
+
+    // A timeout of 0 waits as long as the pool would (its connectionTimeout)
+    public BoundedDataSourcePostProcessor(@Value("${sops.database.permits.timeout-ms:0}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikariDataSource) {
+            int permits = hikariDataSource.getMaximumPoolSize();
+            Duration timeout = Duration.ofMillis(timeoutMs > 0 ? timeoutMs : hikariDataSource.getConnectionTimeout());
+            logger.info("Bounding concurrent database work on {} to {} permits, waiting up to {} ms", beanName, permits, timeout.toMillis());
+            return new BoundedDataSource(hikariDataSource, permits, timeout);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,10 @@
+package com.robertoljr.sops.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record CursorPageDTO<T>(
+        List<T> items,
+        String nextCursor
+) {
+}
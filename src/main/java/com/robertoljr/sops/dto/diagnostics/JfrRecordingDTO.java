@@ -0,0 +1,19 @@
+package com.robertoljr.sops.dto.diagnostics;
+
+import com.robertoljr.sops.constant.diagnostics.RecordingSettings;
+
+import java.time.Instant;
+
+public record JfrRecordingDTO(
+        long id,
+        String name,
+        String state,
+        RecordingSettings settings,
+        Instant startTime,
+        Instant stopTime,
+        long maxAgeSeconds,
+        long maxSizeBytes,
+        long durationSeconds,
+        long sizeBytes
+) {
+}
@@ -0,0 +1,32 @@
+package com.robertoljr.sops.dto.transaction;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class CreateTransactionBatchDTO {
+
+    @NotEmpty
+    @Size(max = 10000, message = "A batch may contain at most 10000 transactions")
+    private List<@Valid CreateTransactionDTO> transactions;
+
+    public CreateTransactionBatchDTO() {
+    }
+
+    public List<CreateTransactionDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<CreateTransactionDTO> transactions) {
+        this.transactions = transactions;
+    }
+
+    @Override
+    public String toString() {
+        return "CreateTransactionBatchDTO{" +
+                "transactions=" + (transactions != null ? transactions.size() : 0) +
+                '}';
+    }
+}
@@ -1,11 +1,10 @@
 package com.robertoljr.sops.dto.transaction;
 
-import jakarta.validation.constraints.DecimalMin;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.money.PositiveMoney;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
-import java.math.BigDecimal;
-
 public class CreateTransactionDTO {
 
     @NotNull
@@ -15,8 +14,8 @@ public class CreateTransactionDTO {
     private Long recipientId;
 
     @NotNull
-    @DecimalMin(value = "0.01", message = "Amount must be greater than 0.0")
-    private BigDecimal amount;
+    @PositiveMoney
+    private Money amount;
 
     @Size(max = 255)
     private String description;
@@ -40,11 +39,11 @@ public class CreateTransactionDTO {
         this.recipientId = recipientId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
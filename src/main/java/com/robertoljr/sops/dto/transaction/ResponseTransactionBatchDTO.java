@@ -0,0 +1,12 @@
+package com.robertoljr.sops.dto.transaction;
+
+import java.util.List;
+
+public record ResponseTransactionBatchDTO(
+        int total,
+        int succeeded,
+        int failed,
+        int rejected,
+        List<TransactionBatchItemDTO> results
+) {
+}
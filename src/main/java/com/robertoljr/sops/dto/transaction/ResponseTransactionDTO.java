@@ -1,15 +1,15 @@
 package com.robertoljr.sops.dto.transaction;
 
 import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.money.Money;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 
 public record ResponseTransactionDTO(
         Long id,
         Long senderId,
         Long recipientId,
-        BigDecimal amount,
+        Money amount,
         Status status,
         String description,
         Instant createdAt,
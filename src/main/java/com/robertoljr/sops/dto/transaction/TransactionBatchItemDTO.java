@@ -0,0 +1,11 @@
+package com.robertoljr.sops.dto.transaction;
+
+import com.robertoljr.sops.constant.transaction.BatchItemStatus;
+
+public record TransactionBatchItemDTO(
+        int index,
+        BatchItemStatus status,
+        ResponseTransactionDTO transaction,
+        String error
+) {
+}
@@ -0,0 +1,15 @@
+package com.robertoljr.sops.dto.transaction;
+
+import com.robertoljr.sops.constant.transaction.Status;
+
+import java.time.Instant;
+
+// Every filter is optional; a null field matches all transactions
+public record TransactionExportFilterDTO(
+        Long senderId,
+        Long recipientId,
+        Status status,
+        Instant start,
+        Instant end
+) {
+}
@@ -0,0 +1,10 @@
+package com.robertoljr.sops.dto.user;
+
+public record UserCacheStatsDTO(
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount
+) {
+}
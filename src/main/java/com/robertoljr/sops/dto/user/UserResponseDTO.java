@@ -2,8 +2,8 @@ package com.robertoljr.sops.dto.user;
 
 import com.robertoljr.sops.constant.user.DocumentType;
 import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.money.Money;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 
 public record UserResponseDTO(
@@ -13,7 +13,7 @@ public record UserResponseDTO(
         String documentNumber,
         String email,
         String phoneNumber,
-        BigDecimal balance,
+        Money balance,
         UserType userType,
         Instant createdAt,
         Instant updatedAt
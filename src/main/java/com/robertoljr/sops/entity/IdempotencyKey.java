@@ -0,0 +1,119 @@
+package com.robertoljr.sops.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+// Rows are claimed and completed through IdempotencyKeyRepository's native statements
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    // JSON of the ResponseTransactionDTO; null while the request is being processed
+    @Column(name = "response")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    // Set when the request failed with an outcome that is not known to be rolled back
+    @Column(name = "failed_at")
+    private Instant failedAt;
+
+    public IdempotencyKey() {
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Instant getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(Instant failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        IdempotencyKey that = (IdempotencyKey) o;
+        return Objects.equals(getKey(), that.getKey()) && Objects.equals(getRequestHash(), that.getRequestHash()) && Objects.equals(getTransactionId(), that.getTransactionId()) && Objects.equals(getCreatedAt(), that.getCreatedAt()) && Objects.equals(getCompletedAt(), that.getCompletedAt()) && Objects.equals(getFailedAt(), that.getFailedAt());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getKey(), getRequestHash(), getTransactionId(), getCreatedAt(), getCompletedAt(), getFailedAt());
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotencyKey{" +
+                "key='" + key + '\'' +
+                ", requestHash='" + requestHash + '\'' +
+                ", transactionId=" + transactionId +
+                ", createdAt=" + createdAt +
+                ", completedAt=" + completedAt +
+                ", failedAt=" + failedAt +
+                '}';
+    }
+}
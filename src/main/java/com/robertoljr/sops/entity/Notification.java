@@ -12,7 +12,8 @@ import java.util.Objects;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -40,7 +41,8 @@ public class Notification {
     @Column(name = "status", nullable = false)
     private Status status;
 
-    @Column(name = "created_at", nullable = false)
+    // Partition key: moving a row to another month would mean moving it to another partition
+    @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @Column(name = "sent_at", nullable = false)
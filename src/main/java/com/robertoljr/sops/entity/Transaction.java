@@ -1,11 +1,13 @@
 package com.robertoljr.sops.entity;
 
 import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.money.MoneyType;
+import com.robertoljr.sops.money.PositiveMoney;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Type;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Objects;
 
@@ -14,7 +16,8 @@ import java.util.Objects;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -27,8 +30,9 @@ public class Transaction {
     private User recipient;
 
     @Column(name = "amount", nullable = false)
-    @DecimalMin(value = "0.01", message = "Amount must be greater than 0.0")
-    private BigDecimal amount;
+    @Type(MoneyType.class)
+    @PositiveMoney
+    private Money amount;
 
     @Column(name = "status", nullable = false)
     @Enumerated(EnumType.STRING)
@@ -38,7 +42,8 @@ public class Transaction {
     @Size(max = 255)
     private String description;
 
-    @Column(name = "created_at", nullable = false)
+    // Partition key: moving a row to another month would mean moving it to another partition
+    @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @Column(name = "updated_at", nullable = false)
@@ -83,11 +88,11 @@ public class Transaction {
         this.recipient = recipient;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -2,9 +2,11 @@ package com.robertoljr.sops.entity;
 
 import com.robertoljr.sops.constant.user.DocumentType;
 import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.money.MoneyType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Type;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Objects;
 
@@ -13,7 +15,8 @@ import java.util.Objects;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -37,7 +40,8 @@ public class User {
     private String password;
 
     @Column(name = "balance", nullable = false)
-    private BigDecimal balance = BigDecimal.ZERO;
+    @Type(MoneyType.class)
+    private Money balance = Money.ZERO;
 
     @Column(name = "user_type", length = 32, nullable = false)
     @Enumerated(EnumType.STRING)
@@ -49,6 +53,10 @@ public class User {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         Instant now = Instant.now();
@@ -120,11 +128,11 @@ public class User {
         this.password = password;
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(BigDecimal balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
@@ -152,16 +160,24 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         User user = (User) o;
-        return Objects.equals(getId(), user.getId()) && Objects.equals(getLegalName(), user.getLegalName()) && getDocumentType() == user.getDocumentType() && Objects.equals(getDocumentNumber(), user.getDocumentNumber()) && Objects.equals(getEmail(), user.getEmail()) && Objects.equals(getPhoneNumber(), user.getPhoneNumber()) && Objects.equals(getPassword(), user.getPassword()) && Objects.equals(getBalance(), user.getBalance()) && getUserType() == user.getUserType() && Objects.equals(getCreatedAt(), user.getCreatedAt()) && Objects.equals(getUpdatedAt(), user.getUpdatedAt());
+        return Objects.equals(getId(), user.getId()) && Objects.equals(getLegalName(), user.getLegalName()) && getDocumentType() == user.getDocumentType() && Objects.equals(getDocumentNumber(), user.getDocumentNumber()) && Objects.equals(getEmail(), user.getEmail()) && Objects.equals(getPhoneNumber(), user.getPhoneNumber()) && Objects.equals(getPassword(), user.getPassword()) && Objects.equals(getBalance(), user.getBalance()) && getUserType() == user.getUserType() && Objects.equals(getCreatedAt(), user.getCreatedAt()) && Objects.equals(getUpdatedAt(), user.getUpdatedAt()) && Objects.equals(getVersion(), user.getVersion());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getId(), getLegalName(), getDocumentType(), getDocumentNumber(), getEmail(), getPhoneNumber(), getPassword(), getBalance(), getUserType(), getCreatedAt(), getUpdatedAt());
+        return Objects.hash(getId(), getLegalName(), getDocumentType(), getDocumentNumber(), getEmail(), getPhoneNumber(), getPassword(), getBalance(), getUserType(), getCreatedAt(), getUpdatedAt(), getVersion());
     }
 
     @Override
@@ -177,6 +193,7 @@ public class User {
                 ", userType=" + userType +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,24 @@
+package com.robertoljr.sops.entity.reactive;
+
+import com.robertoljr.sops.constant.notification.Channel;
+import com.robertoljr.sops.constant.notification.Status;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+// R2DBC mapping of the notifications table, used by the reactive profile
+@Table("notifications")
+public record NotificationRow(
+        @Id Long id,
+        Long userId,
+        Long transactionId,
+        Channel channel,
+        String destination,
+        String subject,
+        String message,
+        Status status,
+        Instant createdAt,
+        Instant sentAt
+) {
+}
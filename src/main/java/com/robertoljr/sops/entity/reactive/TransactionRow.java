@@ -0,0 +1,22 @@
+package com.robertoljr.sops.entity.reactive;
+
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.money.Money;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+// R2DBC mapping of the transactions table, used by the reactive profile
+@Table("transactions")
+public record TransactionRow(
+        @Id Long id,
+        Long senderId,
+        Long recipientId,
+        Money amount,
+        Status status,
+        String description,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
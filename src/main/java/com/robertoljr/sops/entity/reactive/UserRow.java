@@ -0,0 +1,27 @@
+package com.robertoljr.sops.entity.reactive;
+
+import com.robertoljr.sops.constant.user.DocumentType;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.money.Money;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+// R2DBC mapping of the users table, used by the reactive profile; balances only change through
+// the conditional UPDATEs of ReactiveUserRepository
+@Table("users")
+public record UserRow(
+        @Id Long id,
+        String legalName,
+        DocumentType documentType,
+        String documentNumber,
+        String email,
+        String phoneNumber,
+        Money balance,
+        UserType userType,
+        Instant createdAt,
+        Instant updatedAt,
+        Long version
+) {
+}
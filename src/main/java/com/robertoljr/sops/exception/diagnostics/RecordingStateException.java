@@ -0,0 +1,7 @@
+package com.robertoljr.sops.exception.diagnostics;
+
+public class RecordingStateException extends RuntimeException {
+    public RecordingStateException(String message) {
+        super(message);
+    }
+}
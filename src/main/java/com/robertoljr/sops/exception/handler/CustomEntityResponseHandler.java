@@ -1,6 +1,8 @@
 package com.robertoljr.sops.exception.handler;
 
 import com.robertoljr.sops.exception.*;
+import com.robertoljr.sops.exception.transaction.IdempotencyKeyMismatchException;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
 import com.robertoljr.sops.exception.transaction.TransactionCreationException;
 import com.robertoljr.sops.exception.transaction.TransactionNotAllowedException;
 import com.robertoljr.sops.exception.transaction.TransactionNotFoundException;
@@ -11,6 +13,7 @@ import com.robertoljr.sops.exception.user.UserNotFoundException;
 import com.robertoljr.sops.exception.user.UserUpdateException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -21,6 +24,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.time.Instant;
 
 @ControllerAdvice
+@Profile("!reactive")
 public class CustomEntityResponseHandler extends ResponseEntityExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomEntityResponseHandler.class);
@@ -36,6 +40,11 @@ public class CustomEntityResponseHandler extends ResponseEntityExceptionHandler
         return new ResponseEntity<>(exceptionResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public final ResponseEntity<ExceptionResponse> handleInvalidCursorExceptions(InvalidCursorException ex, WebRequest request) {
+        return buildResponse(ex, request, HttpStatus.BAD_REQUEST);
+    }
+
     // User exceptions
     @ExceptionHandler(UserCreationException.class)
     public final ResponseEntity<ExceptionResponse> handleUserCreationExceptions(UserCreationException ex, WebRequest request) {
@@ -63,6 +72,11 @@ public class CustomEntityResponseHandler extends ResponseEntityExceptionHandler
         return buildResponse(ex, request, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(TransactionConflictException.class)
+    public final ResponseEntity<ExceptionResponse> handleTransactionConflictExceptions(TransactionConflictException ex, WebRequest request) {
+        return buildResponse(ex, request, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(TransactionNotAllowedException.class)
     public final ResponseEntity<ExceptionResponse> handleTransactionNotAllowedExceptions(TransactionNotAllowedException ex, WebRequest request) {
         return buildResponse(ex, request, HttpStatus.BAD_REQUEST);
@@ -78,6 +92,11 @@ public class CustomEntityResponseHandler extends ResponseEntityExceptionHandler
         return buildResponse(ex, request, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public final ResponseEntity<ExceptionResponse> handleIdempotencyKeyMismatchExceptions(IdempotencyKeyMismatchException ex, WebRequest request) {
+        return buildResponse(ex, request, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     private ResponseEntity<ExceptionResponse> buildResponse(Exception ex, WebRequest request, HttpStatus status) {
         logger.error("Exception:", ex);
         ExceptionResponse exceptionResponse = new ExceptionResponse(
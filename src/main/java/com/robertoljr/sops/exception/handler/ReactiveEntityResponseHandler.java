@@ -0,0 +1,87 @@
+package com.robertoljr.sops.exception.handler;
+
+import com.robertoljr.sops.exception.*;
+import com.robertoljr.sops.exception.transaction.IdempotencyKeyMismatchException;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.exception.transaction.TransactionNotAllowedException;
+import com.robertoljr.sops.exception.transaction.TransactionNotFoundException;
+import com.robertoljr.sops.exception.transaction.TransactionUpdateStatusException;
+import com.robertoljr.sops.exception.user.UserCreationException;
+import com.robertoljr.sops.exception.user.UserDeletionException;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.exception.user.UserUpdateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+
+// WebFlux counterpart of CustomEntityResponseHandler for the "reactive" profile, with the same
+// statuses and response body
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveEntityResponseHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEntityResponseHandler.class);
+
+    @ExceptionHandler(Exception.class)
+    public final ResponseEntity<ExceptionResponse> handleGlobalExceptions(Exception ex, ServerWebExchange exchange) {
+        logger.error("Exception:", ex);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                Instant.now(),
+                "An unexpected error occurred. Please try again later.", // Generic message for security
+                describe(exchange)
+        );
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @ExceptionHandler({
+            InvalidCursorException.class,
+            UserCreationException.class,
+            UserUpdateException.class,
+            UserDeletionException.class,
+            TransactionCreationException.class,
+            TransactionNotAllowedException.class,
+            TransactionUpdateStatusException.class
+    })
+    public final ResponseEntity<ExceptionResponse> handleBadRequestExceptions(RuntimeException ex, ServerWebExchange exchange) {
+        return buildResponse(ex, exchange, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({UserNotFoundException.class, TransactionNotFoundException.class})
+    public final ResponseEntity<ExceptionResponse> handleNotFoundExceptions(RuntimeException ex, ServerWebExchange exchange) {
+        return buildResponse(ex, exchange, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(TransactionConflictException.class)
+    public final ResponseEntity<ExceptionResponse> handleTransactionConflictExceptions(TransactionConflictException ex, ServerWebExchange exchange) {
+        return buildResponse(ex, exchange, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public final ResponseEntity<ExceptionResponse> handleIdempotencyKeyMismatchExceptions(IdempotencyKeyMismatchException ex, ServerWebExchange exchange) {
+        return buildResponse(ex, exchange, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    private ResponseEntity<ExceptionResponse> buildResponse(Exception ex, ServerWebExchange exchange, HttpStatus status) {
+        logger.error("Exception:", ex);
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                Instant.now(),
+                ex.getMessage(),
+                describe(exchange)
+        );
+        return new ResponseEntity<>(exceptionResponse, status);
+    }
+
+    // Same format as WebRequest.getDescription(false)
+    private String describe(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+}
@@ -0,0 +1,7 @@
+package com.robertoljr.sops.exception.transaction;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.robertoljr.sops.exception.transaction;
+
+public class TransactionConflictException extends RuntimeException {
+    public TransactionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,27 @@
+package com.robertoljr.sops.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request to the external authorizer. A hedged authorization records two of these.
+ */
+@Name("com.robertoljr.sops.AuthorizerCall")
+@Label("Authorizer Call")
+@Category({"SOPS", "Provider"})
+@Description("An HTTP request to the transfer authorizer")
+@StackTrace(false)
+public class AuthorizerCallEvent extends Event {
+
+    @Label("Outcome")
+    @Description("AUTHORIZED, DENIED or ERROR")
+    public String outcome;
+
+    @Label("Hedge")
+    @Description("Whether this is the hedged second request")
+    public boolean hedge;
+}
@@ -0,0 +1,117 @@
+package com.robertoljr.sops.jfr;
+
+import com.robertoljr.sops.constant.diagnostics.RecordingSettings;
+import com.robertoljr.sops.dto.diagnostics.JfrRecordingDTO;
+import com.robertoljr.sops.exception.ExceptionResponse;
+import com.robertoljr.sops.exception.diagnostics.RecordingStateException;
+import com.robertoljr.sops.service.JfrRecordingService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * On-demand JFR recordings as the {@code jfr} actuator endpoint, so they live on the management
+ * server next to the other operational endpoints instead of the public API. Like any actuator
+ * endpoint it is not exposed unless listed in {@code management.endpoints.web.exposure.include};
+ * expose it only with a {@code management.server.port} that is not reachable from outside.
+ * <p>
+ * {@code GET /actuator/jfr} describes the recording, {@code POST} starts one, {@code DELETE} stops
+ * it and {@code GET /actuator/jfr/{id}} downloads what recording {@code id} has recorded so far.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final int STATUS_CONFLICT = 409;
+
+    private final JfrRecordingService jfrRecordingService;
+
+    public JfrRecordingEndpoint(JfrRecordingService jfrRecordingService) {
+        this.jfrRecordingService = jfrRecordingService;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<JfrRecordingDTO> findRecording() {
+        return jfrRecordingService.findRecording()
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> startRecording(@Nullable RecordingSettings settings,
+                                                      @Nullable Long maxAgeSeconds,
+                                                      @Nullable Long maxSizeMb,
+                                                      @Nullable Long durationSeconds) {
+        return handle(() -> jfrRecordingService.startRecording(
+                settings != null ? settings : RecordingSettings.DEFAULT,
+                maxAgeSeconds != null ? maxAgeSeconds : 600,
+                maxSizeMb != null ? maxSizeMb : 100,
+                durationSeconds != null ? durationSeconds : 0));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Object> stopRecording() {
+        return handle(jfrRecordingService::stopRecording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dumpRecording(@Selector long id) {
+        boolean current = jfrRecordingService.findRecording()
+                .map(recording -> recording.id() == id)
+                .orElse(false);
+        if (!current) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(jfrRecordingService.dumpRecording()));
+    }
+
+    private WebEndpointResponse<Object> handle(Supplier<JfrRecordingDTO> operation) {
+        try {
+            return new WebEndpointResponse<>(operation.get());
+        } catch (RecordingStateException ex) {
+            return new WebEndpointResponse<>(new ExceptionResponse(Instant.now(), ex.getMessage(), "actuator/jfr"), STATUS_CONFLICT);
+        }
+    }
+
+    // Deletes the dump once it has been streamed; not a file, so it is always read through the stream
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
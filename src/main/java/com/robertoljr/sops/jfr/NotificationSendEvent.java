@@ -0,0 +1,35 @@
+package com.robertoljr.sops.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to the external notifier, made either directly for a transaction or by the outbox
+ * dispatcher for an outbox row.
+ */
+@Name("com.robertoljr.sops.NotificationSend")
+@Label("Notification Send")
+@Category({"SOPS", "Provider"})
+@Description("An HTTP request to the notifier")
+@StackTrace(false)
+public class NotificationSendEvent extends Event {
+
+    @Label("Transaction Id")
+    @Description("Transaction notified about, 0 if unknown")
+    public long transactionId;
+
+    @Label("Outbox Id")
+    @Description("Outbox row being delivered, 0 when sent directly")
+    public long outboxId;
+
+    @Label("Notifications")
+    @Description("Notifications covered by this single call")
+    public int notifications;
+
+    @Label("Delivered")
+    public boolean delivered;
+}
@@ -0,0 +1,32 @@
+package com.robertoljr.sops.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Spring Data repository method call slower than the event threshold (20 ms unless the recording
+ * overrides it). For methods returning a Stream only opening the cursor is timed.
+ */
+@Name("com.robertoljr.sops.SlowRepositoryQuery")
+@Label("Slow Repository Query")
+@Category({"SOPS", "Database"})
+@Description("A repository method call that exceeded the threshold")
+@Threshold("20 ms")
+@StackTrace(true)
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Arguments")
+    @Description("Ids and other simple arguments; entities and collections are summarized")
+    public String arguments;
+}
@@ -0,0 +1,26 @@
+package com.robertoljr.sops.jfr;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactoryBean;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a {@link RepositoryQueryInterceptor} to every Spring Data repository proxy, so slow queries
+ * show up in JFR recordings with the repository, method and arguments that caused them.
+ */
+@Component
+public class RepositoryQueryEventPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // The factory bean creates its repository on initialization, after this customizer is added
+        // R2DBC repositories return before their query runs, so timing the call would measure nothing
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean && !(bean instanceof R2dbcRepositoryFactoryBean<?, ?, ?>)) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryQueryInterceptor(repositoryInformation.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,70 @@
+package com.robertoljr.sops.jfr;
+
+import com.robertoljr.sops.money.Money;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.StringJoiner;
+
+/**
+ * Times repository method calls as {@link RepositoryQueryEvent}s. Costs one enabled check per call
+ * while no recording has the event switched on. Text arguments such as emails, document numbers and
+ * passwords are recorded by length only, since recordings are dumped off the host.
+ */
+class RepositoryQueryInterceptor implements MethodInterceptor {
+
+    private static final int MAX_ARGUMENTS_LENGTH = 256;
+
+    private final String repository;
+
+    RepositoryQueryInterceptor(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        event.begin();
+        try {
+            return invocation.proceed();
+        } finally {
+            event.end();
+            // Only build the strings for calls above the threshold
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.method = invocation.getMethod().getName();
+                event.arguments = describe(invocation.getArguments());
+                event.commit();
+            }
+        }
+    }
+
+    private static String describe(Object[] arguments) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Object argument : arguments) {
+            joiner.add(describe(argument));
+        }
+        String description = joiner.toString();
+        return description.length() > MAX_ARGUMENTS_LENGTH ? description.substring(0, MAX_ARGUMENTS_LENGTH) : description;
+    }
+
+    private static String describe(Object argument) {
+        if (argument == null || argument instanceof Number || argument instanceof Boolean
+                || argument instanceof Enum<?> || argument instanceof Temporal || argument instanceof Money) {
+            return String.valueOf(argument);
+        }
+        if (argument instanceof CharSequence text) {
+            return "text(" + text.length() + ")";
+        }
+        if (argument instanceof Collection<?> collection) {
+            return collection.size() + " items";
+        }
+        return argument.getClass().getSimpleName();
+    }
+}
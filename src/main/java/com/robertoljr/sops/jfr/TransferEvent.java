@@ -0,0 +1,41 @@
+package com.robertoljr.sops.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One createTransaction call end to end. Its {@link TransferStageEvent}s are recorded on the same
+ * thread inside its time span.
+ */
+@Name("com.robertoljr.sops.Transfer")
+@Label("Transfer")
+@Category({"SOPS", "Transfer"})
+@Description("A createTransaction call, from validation to response")
+@StackTrace(false)
+public class TransferEvent extends Event {
+
+    @Label("Sender Id")
+    public long senderId;
+
+    @Label("Recipient Id")
+    public long recipientId;
+
+    @Label("Amount")
+    @Description("Transfer amount in centavos")
+    public long amountCents;
+
+    @Label("Transaction Id")
+    @Description("Id of the created transaction, 0 if none was created")
+    public long transactionId;
+
+    @Label("Execution Mode")
+    public String mode;
+
+    @Label("Outcome")
+    @Description("Resulting transaction status, or REJECTED when the transfer threw")
+    public String outcome;
+}
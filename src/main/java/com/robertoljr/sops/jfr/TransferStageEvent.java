@@ -0,0 +1,28 @@
+package com.robertoljr.sops.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time spent in one {@link com.robertoljr.sops.constant.transaction.TransferStage} of a transfer.
+ */
+@Name("com.robertoljr.sops.TransferStage")
+@Label("Transfer Stage")
+@Category({"SOPS", "Transfer"})
+@Description("A single stage of createTransaction")
+@StackTrace(false)
+public class TransferStageEvent extends Event {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Sender Id")
+    public long senderId;
+
+    @Label("Recipient Id")
+    public long recipientId;
+}
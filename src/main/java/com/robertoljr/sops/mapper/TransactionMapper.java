@@ -4,6 +4,7 @@ import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
 import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
 import com.robertoljr.sops.entity.Transaction;
 import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.entity.reactive.TransactionRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -22,6 +23,9 @@ public interface TransactionMapper {
     @Mapping(source = "recipient.id", target = "recipientId")
     ResponseTransactionDTO toResponseDTO(Transaction transaction);
 
+    // TransactionRow -> ResponseTransactionDTO (reactive profile)
+    ResponseTransactionDTO toResponseDTO(TransactionRow row);
+
     @Named("fromId")
     default User fromId(Long id) {
         if (id == null) {
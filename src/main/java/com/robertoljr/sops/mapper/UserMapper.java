@@ -3,17 +3,25 @@ package com.robertoljr.sops.mapper;
 import com.robertoljr.sops.dto.user.UserCreateDTO;
 import com.robertoljr.sops.dto.user.UserResponseDTO;
 import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.money.Money;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring")
+import java.math.BigDecimal;
+
+@Mapper(componentModel = "spring", imports = Money.class)
 public interface UserMapper {
 
     // UserCreateDTO -> User
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "balance", defaultValue = "0.00")
+    @Mapping(target = "balance", defaultExpression = "java(Money.ZERO)")
+    @Mapping(target = "version", ignore = true)
     User toEntity(UserCreateDTO dto);
 
     // User -> UserCreateDTO
     UserResponseDTO toResponseDTO(User user);
+
+    default Money toMoney(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
 }
@@ -0,0 +1,30 @@
+package com.robertoljr.sops.metrics;
+
+import com.robertoljr.sops.constant.notification.Channel;
+import com.robertoljr.sops.constant.notification.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code sops.notifications}: notifications moved into a status (PENDING when enqueued, SENT or
+ * FAILED after a delivery attempt), by status and channel.
+ */
+@Component
+public class NotificationMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public NotificationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(Status status, Channel channel) {
+        Counter.builder("sops.notifications")
+                .description("Notifications moved into a status, by status and channel")
+                .tag("status", status.name())
+                .tag("channel", channel == null ? "NONE" : channel.name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,163 @@
+package com.robertoljr.sops.metrics;
+
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.constant.transaction.TransferExecutionMode;
+import com.robertoljr.sops.constant.transaction.TransferStage;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.jfr.TransferEvent;
+import com.robertoljr.sops.jfr.TransferStageEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Meters of the transfer pipeline:
+ * <ul>
+ *   <li>{@code sops.transfer}: createTransaction end to end, by execution mode and outcome
+ *   (the resulting Status, or REJECTED when it threw)</li>
+ *   <li>{@code sops.transfer.stage}: time spent in each {@link TransferStage}</li>
+ *   <li>{@code sops.transactions}: transactions created, by Status</li>
+ * </ul>
+ * Timers publish percentile histograms so latency can be aggregated across instances. The same
+ * spans are emitted as JFR {@link TransferEvent}s and {@link TransferStageEvent}s carrying the
+ * user and transaction ids, for recordings taken through the jfr actuator endpoint.
+ */
+@Component
+public class TransferMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransferStage, Timer> stageTimers = new EnumMap<>(TransferStage.class);
+    private final Map<Status, Counter> statusCounters = new EnumMap<>(Status.class);
+    private final Map<TransferExecutionMode, Map<String, Timer>> transferTimers = new EnumMap<>(TransferExecutionMode.class);
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (TransferStage stage : TransferStage.values()) {
+            stageTimers.put(stage, Timer.builder("sops.transfer.stage")
+                    .description("Time spent in each stage of createTransaction")
+                    .tag("stage", stage.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (Status status : Status.values()) {
+            statusCounters.put(status, Counter.builder("sops.transactions")
+                    .description("Transactions created, by status")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        // Outcomes are the resulting Status, or REJECTED when createTransaction threw
+        List<String> outcomes = Stream.concat(Arrays.stream(Status.values()).map(Status::name), Stream.of("REJECTED")).toList();
+        for (TransferExecutionMode mode : TransferExecutionMode.values()) {
+            Map<String, Timer> timers = new HashMap<>();
+            for (String outcome : outcomes) {
+                timers.put(outcome, Timer.builder("sops.transfer")
+                        .description("createTransaction end to end")
+                        .tag("mode", mode.name())
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+            transferTimers.put(mode, timers);
+        }
+    }
+
+    public <T> T time(TransferStage stage, CreateTransactionDTO dto, Supplier<T> work) {
+        TransferStageEvent event = new TransferStageEvent();
+        event.begin();
+        try {
+            return stageTimers.get(stage).record(work);
+        } finally {
+            commit(event, stage, dto);
+        }
+    }
+
+    public void time(TransferStage stage, CreateTransactionDTO dto, Runnable work) {
+        TransferStageEvent event = new TransferStageEvent();
+        event.begin();
+        try {
+            stageTimers.get(stage).record(work);
+        } finally {
+            commit(event, stage, dto);
+        }
+    }
+
+    // Records the commit of the current transaction as the COMMIT stage, including the flush before it
+    public void timeCommit(CreateTransactionDTO dto) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+            private TransferStageEvent event;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                event = new TransferStageEvent();
+                event.begin();
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (start != 0) {
+                    stageTimers.get(TransferStage.COMMIT).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    commit(event, TransferStage.COMMIT, dto);
+                }
+            }
+        });
+    }
+
+    public InFlightTransfer startTransfer(CreateTransactionDTO dto) {
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        return new InFlightTransfer(Timer.start(meterRegistry), event, dto);
+    }
+
+    // transactionId is null when the transfer threw before a transaction was created
+    public void stopTransfer(InFlightTransfer transfer, TransferExecutionMode mode, String outcome, Long transactionId) {
+        transfer.sample().stop(transferTimers.get(mode).get(outcome));
+
+        TransferEvent event = transfer.event();
+        event.end();
+        if (event.shouldCommit()) {
+            CreateTransactionDTO dto = transfer.dto();
+            event.senderId = idOrZero(dto.getSenderId());
+            event.recipientId = idOrZero(dto.getRecipientId());
+            event.amountCents = dto.getAmount() != null ? dto.getAmount().cents() : 0;
+            event.transactionId = idOrZero(transactionId);
+            event.mode = mode.name();
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    public void recordTransaction(Status status) {
+        statusCounters.get(status).increment();
+    }
+
+    private static void commit(TransferStageEvent event, TransferStage stage, CreateTransactionDTO dto) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.stage = stage.name();
+            event.senderId = idOrZero(dto.getSenderId());
+            event.recipientId = idOrZero(dto.getRecipientId());
+            event.commit();
+        }
+    }
+
+    private static long idOrZero(Long id) {
+        return id != null ? id : 0;
+    }
+
+    public record InFlightTransfer(Timer.Sample sample, TransferEvent event, CreateTransactionDTO dto) {
+    }
+}
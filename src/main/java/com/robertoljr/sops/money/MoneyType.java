@@ -0,0 +1,77 @@
+package com.robertoljr.sops.money;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+// Maps Money to a NUMERIC(19,2) column
+public class MoneyType implements UserType<Money> {
+
+    @Override
+    public int getSqlType() {
+        return Types.NUMERIC;
+    }
+
+    @Override
+    public Class<Money> returnedClass() {
+        return Money.class;
+    }
+
+    @Override
+    public boolean equals(Money x, Money y) {
+        return x == null ? y == null : x.equals(y);
+    }
+
+    @Override
+    public int hashCode(Money x) {
+        return x.hashCode();
+    }
+
+    @Override
+    public Money nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(position);
+        return value == null ? null : Money.of(value);
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, Money value, int index, SharedSessionContractImplementor session) throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.NUMERIC);
+        } else {
+            st.setBigDecimal(index, value.toBigDecimal());
+        }
+    }
+
+    // Money is immutable
+    @Override
+    public Money deepCopy(Money value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    // Cached as centavos, so the second-level cache holds a plain Long
+    @Override
+    public Serializable disassemble(Money value) {
+        return value == null ? null : value.cents();
+    }
+
+    @Override
+    public Money assemble(Serializable cached, Object owner) {
+        return cached == null ? null : Money.ofCents((Long) cached);
+    }
+
+    @Override
+    public Money replace(Money detached, Money managed, Object owner) {
+        return detached;
+    }
+}
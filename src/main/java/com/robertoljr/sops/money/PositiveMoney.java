@@ -0,0 +1,22 @@
+package com.robertoljr.sops.money;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Bean Validation's numeric constraints only accept Number types; null is left to @NotNull
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = PositiveMoneyValidator.class)
+public @interface PositiveMoney {
+
+    String message() default "Amount must be greater than 0.0";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
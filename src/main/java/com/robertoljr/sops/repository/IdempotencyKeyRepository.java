@@ -0,0 +1,43 @@
+package com.robertoljr.sops.repository;
+
+import com.robertoljr.sops.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // 1 if this caller now owns the key, 0 if another request claimed it first; the unique index
+    // decides, so concurrent claims on different instances cannot both win
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at) " +
+            "VALUES (:key, :requestHash, :now) ON CONFLICT (idempotency_key) DO NOTHING",
+            nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET transaction_id = :transactionId, response = :response, completed_at = :now " +
+            "WHERE idempotency_key = :key",
+            nativeQuery = true)
+    int complete(@Param("key") String key, @Param("transactionId") Long transactionId, @Param("response") String response, @Param("now") Instant now);
+
+    // Releases a key whose request failed, so the client can retry it
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE idempotency_key = :key AND response IS NULL", nativeQuery = true)
+    int release(@Param("key") String key);
+
+    // Keeps a key whose request may have committed before it failed, so retries cannot transfer twice
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET failed_at = :now WHERE idempotency_key = :key AND response IS NULL",
+            nativeQuery = true)
+    int fail(@Param("key") String key, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :before", nativeQuery = true)
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,28 @@
+package com.robertoljr.sops.repository;
+
+import com.robertoljr.sops.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Rows claimed by another dispatcher are skipped instead of waited on
+    @Query(value = "SELECT * FROM notification_outbox WHERE next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutbox> claimDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    // Rows whose notification was dropped with its partition
+    @Modifying
+    @Query(value = "DELETE FROM notification_outbox o " +
+            "WHERE NOT EXISTS (SELECT 1 FROM notifications n WHERE n.id = o.notification_id)",
+            nativeQuery = true)
+    int deleteOrphans();
+}
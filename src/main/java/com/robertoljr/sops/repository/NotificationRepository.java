@@ -2,7 +2,11 @@ package com.robertoljr.sops.repository;
 
 import com.robertoljr.sops.constant.notification.Status;
 import com.robertoljr.sops.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -18,4 +22,30 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByStatus(Status status);
 
     List<Notification> findByCreatedAtBetween(Instant start, Instant end);
+
+    // Keyset pages ordered by (createdAt, id); see PageCursor
+    @Query("SELECT n FROM Notification n WHERE n.createdAt >= :createdAt AND (n.createdAt > :createdAt OR n.id > :id) " +
+            "ORDER BY n.createdAt, n.id")
+    List<Notification> findPage(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.createdAt >= :createdAt AND (n.createdAt > :createdAt OR n.id > :id) " +
+            "ORDER BY n.createdAt, n.id")
+    List<Notification> findPageByUserId(@Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT n FROM Notification n WHERE n.transaction.id = :transactionId AND n.createdAt >= :createdAt AND (n.createdAt > :createdAt OR n.id > :id) " +
+            "ORDER BY n.createdAt, n.id")
+    List<Notification> findPageByTransactionId(@Param("transactionId") Long transactionId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT n FROM Notification n WHERE n.status = :status AND n.createdAt >= :createdAt AND (n.createdAt > :createdAt OR n.id > :id) " +
+            "ORDER BY n.createdAt, n.id")
+    List<Notification> findPageByStatus(@Param("status") Status status, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT n FROM Notification n WHERE n.createdAt BETWEEN :start AND :end AND n.createdAt >= :createdAt AND (n.createdAt > :createdAt OR n.id > :id) " +
+            "ORDER BY n.createdAt, n.id")
+    List<Notification> findPageByCreatedAtBetween(@Param("start") Instant start, @Param("end") Instant end, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = com.robertoljr.sops.constant.notification.Status.SENT, n.sentAt = :sentAt " +
+            "WHERE n.transaction.id = :transactionId")
+    int markSentByTransactionId(@Param("transactionId") Long transactionId, @Param("sentAt") Instant sentAt);
 }
@@ -0,0 +1,35 @@
+package com.robertoljr.sops.repository;
+
+import com.robertoljr.sops.entity.reactive.NotificationRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+// Notification writes of the reactive transfer path
+public interface ReactiveNotificationRepository extends R2dbcRepository<NotificationRow, Long> {
+
+    // A PENDING notification and its outbox row in one statement; the outbox dispatcher delivers it
+    @Query("WITH notification AS (" +
+            "INSERT INTO notifications (user_id, transaction_id, channel, destination, subject, message, status) " +
+            "VALUES (:userId, :transactionId, :channel, :destination, :subject, :message, 'PENDING') RETURNING id) " +
+            "INSERT INTO notification_outbox (notification_id) SELECT id FROM notification RETURNING notification_id")
+    Mono<Long> enqueue(@Param("userId") Long userId,
+                       @Param("transactionId") Long transactionId,
+                       @Param("channel") String channel,
+                       @Param("destination") String destination,
+                       @Param("subject") String subject,
+                       @Param("message") String message);
+
+    // A notification the notifier was already called for; sentAt is set when it accepted it
+    @Query("INSERT INTO notifications (user_id, transaction_id, channel, destination, subject, message, status, sent_at) " +
+            "VALUES (:userId, :transactionId, :channel, :destination, :subject, :message, :status, " +
+            "CASE WHEN :status = 'SENT' THEN NOW() END) RETURNING id")
+    Mono<Long> insertSent(@Param("userId") Long userId,
+                          @Param("transactionId") Long transactionId,
+                          @Param("channel") String channel,
+                          @Param("destination") String destination,
+                          @Param("subject") String subject,
+                          @Param("message") String message,
+                          @Param("status") String status);
+}
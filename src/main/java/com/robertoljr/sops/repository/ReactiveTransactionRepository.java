@@ -0,0 +1,64 @@
+package com.robertoljr.sops.repository;
+
+import com.robertoljr.sops.entity.reactive.TransactionRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Non-blocking counterpart of TransactionRepository for the reactive profile. Statuses are bound
+// as their names; limits are the page size plus one, see PageCursor
+public interface ReactiveTransactionRepository extends R2dbcRepository<TransactionRow, Long> {
+
+    // id, created_at and updated_at come from the column defaults, as in perform_transfer
+    @Query("INSERT INTO transactions (sender_id, recipient_id, amount, status, description) " +
+            "VALUES (:senderId, :recipientId, :amount, :status, :description) RETURNING *")
+    Mono<TransactionRow> insert(@Param("senderId") Long senderId,
+                                @Param("recipientId") Long recipientId,
+                                @Param("amount") BigDecimal amount,
+                                @Param("status") String status,
+                                @Param("description") String description);
+
+    // Keyset pages ordered by (created_at, id)
+    @Query("SELECT * FROM transactions WHERE created_at >= :createdAt AND (created_at > :createdAt OR id > :id) " +
+            "ORDER BY created_at, id LIMIT :limit")
+    Flux<TransactionRow> findPage(@Param("createdAt") Instant createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query("SELECT * FROM transactions WHERE sender_id = :senderId AND created_at >= :createdAt AND (created_at > :createdAt OR id > :id) " +
+            "ORDER BY created_at, id LIMIT :limit")
+    Flux<TransactionRow> findPageBySenderId(@Param("senderId") Long senderId, @Param("createdAt") Instant createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query("SELECT * FROM transactions WHERE recipient_id = :recipientId AND created_at >= :createdAt AND (created_at > :createdAt OR id > :id) " +
+            "ORDER BY created_at, id LIMIT :limit")
+    Flux<TransactionRow> findPageByRecipientId(@Param("recipientId") Long recipientId, @Param("createdAt") Instant createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query("SELECT * FROM transactions WHERE status = :status AND created_at >= :createdAt AND (created_at > :createdAt OR id > :id) " +
+            "ORDER BY created_at, id LIMIT :limit")
+    Flux<TransactionRow> findPageByStatus(@Param("status") String status, @Param("createdAt") Instant createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query("SELECT * FROM transactions WHERE created_at BETWEEN :start AND :end AND created_at >= :createdAt AND (created_at > :createdAt OR id > :id) " +
+            "ORDER BY created_at, id LIMIT :limit")
+    Flux<TransactionRow> findPageByCreatedAtBetween(@Param("start") Instant start, @Param("end") Instant end, @Param("createdAt") Instant createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+    // Rows are emitted as the driver reads them, with backpressure; null filters match everything
+    @Query("SELECT * FROM transactions WHERE (CAST(:senderId AS BIGINT) IS NULL OR sender_id = :senderId) " +
+            "AND (CAST(:recipientId AS BIGINT) IS NULL OR recipient_id = :recipientId) " +
+            "AND (CAST(:status AS VARCHAR) IS NULL OR status = :status) " +
+            "AND (CAST(:start AS TIMESTAMP) IS NULL OR created_at >= :start) " +
+            "AND (CAST(:end AS TIMESTAMP) IS NULL OR created_at <= :end) " +
+            "ORDER BY created_at, id")
+    Flux<TransactionRow> streamForExport(@Param("senderId") Long senderId,
+                                         @Param("recipientId") Long recipientId,
+                                         @Param("status") String status,
+                                         @Param("start") Instant start,
+                                         @Param("end") Instant end);
+
+    @Modifying
+    @Query("UPDATE transactions SET status = :status, updated_at = :now WHERE id = :id")
+    Mono<Integer> updateStatus(@Param("id") Long id, @Param("status") String status, @Param("now") Instant now);
+}
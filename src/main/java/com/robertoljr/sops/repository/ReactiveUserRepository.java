@@ -0,0 +1,25 @@
+package com.robertoljr.sops.repository;
+
+import com.robertoljr.sops.entity.reactive.UserRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// Non-blocking counterpart of UserRepository for the reactive profile
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+
+    // Conditional write: the balance check and the debit happen in a single statement
+    @Modifying
+    @Query("UPDATE users SET balance = balance - :amountCents / 100.0, version = version + 1, updated_at = :now " +
+            "WHERE id = :id AND balance >= :amountCents / 100.0")
+    Mono<Integer> debitIfSufficientBalance(@Param("id") Long id, @Param("amountCents") long amountCents, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE users SET balance = balance + :amountCents / 100.0, version = version + 1, updated_at = :now " +
+            "WHERE id = :id")
+    Mono<Integer> credit(@Param("id") Long id, @Param("amountCents") long amountCents, @Param("now") Instant now);
+}
@@ -2,15 +2,25 @@ package com.robertoljr.sops.repository;
 
 import com.robertoljr.sops.constant.transaction.Status;
 import com.robertoljr.sops.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    int EXPORT_FETCH_SIZE = 1000;
+
     List<Transaction> findBySenderId(Long senderId);
 
     List<Transaction> findByRecipientId(Long recipientId);
@@ -18,4 +28,52 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByStatus(Status status);
 
     List<Transaction> findByCreatedAtBetween(Instant start, Instant end);
+
+    // Keyset pages ordered by (createdAt, id); see PageCursor
+    @Query("SELECT t FROM Transaction t WHERE t.createdAt >= :createdAt AND (t.createdAt > :createdAt OR t.id > :id) " +
+            "ORDER BY t.createdAt, t.id")
+    List<Transaction> findPage(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.sender.id = :senderId AND t.createdAt >= :createdAt AND (t.createdAt > :createdAt OR t.id > :id) " +
+            "ORDER BY t.createdAt, t.id")
+    List<Transaction> findPageBySenderId(@Param("senderId") Long senderId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.recipient.id = :recipientId AND t.createdAt >= :createdAt AND (t.createdAt > :createdAt OR t.id > :id) " +
+            "ORDER BY t.createdAt, t.id")
+    List<Transaction> findPageByRecipientId(@Param("recipientId") Long recipientId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.createdAt >= :createdAt AND (t.createdAt > :createdAt OR t.id > :id) " +
+            "ORDER BY t.createdAt, t.id")
+    List<Transaction> findPageByStatus(@Param("status") Status status, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.createdAt BETWEEN :start AND :end AND t.createdAt >= :createdAt AND (t.createdAt > :createdAt OR t.id > :id) " +
+            "ORDER BY t.createdAt, t.id")
+    List<Transaction> findPageByCreatedAtBetween(@Param("start") Instant start, @Param("end") Instant end, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    // Forward-only cursor for exports; null filters match everything
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE (:senderId IS NULL OR t.sender.id = :senderId) " +
+            "AND (:recipientId IS NULL OR t.recipient.id = :recipientId) " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "AND (:start IS NULL OR t.createdAt >= :start) " +
+            "AND (:end IS NULL OR t.createdAt <= :end) " +
+            "ORDER BY t.createdAt, t.id")
+    Stream<Transaction> streamForExport(@Param("senderId") Long senderId,
+                                        @Param("recipientId") Long recipientId,
+                                        @Param("status") Status status,
+                                        @Param("start") Instant start,
+                                        @Param("end") Instant end);
+
+    // See V8__enqueue_notification_in_perform_transfer.sql
+    @Query(value = "SELECT * FROM perform_transfer(:senderId, :recipientId, :amount, :description, :authorized, :notificationSent)",
+            nativeQuery = true)
+    Transaction performTransfer(@Param("senderId") Long senderId,
+                                @Param("recipientId") Long recipientId,
+                                @Param("amount") BigDecimal amount,
+                                @Param("description") String description,
+                                @Param("authorized") boolean authorized,
+                                @Param("notificationSent") Boolean notificationSent);
 }
@@ -1,9 +1,23 @@
 package com.robertoljr.sops.repository;
 
 import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.projection.StripedBalanceView;
+import com.robertoljr.sops.repository.projection.TransferPartyView;
+import com.robertoljr.sops.repository.projection.UserBalanceView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +26,79 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByDocumentNumber(String documentNumber);
+
+    // Keyset page ordered by (createdAt, id); see PageCursor
+    @Query("SELECT u FROM User u WHERE u.createdAt >= :createdAt AND (u.createdAt > :createdAt OR u.id > :id) " +
+            "ORDER BY u.createdAt, u.id")
+    List<User> findPage(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    // Rows are locked in id order so that overlapping batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Sender and recipient of a transfer in a single round trip
+    @Query("SELECT u.id AS id, u.userType AS userType, u.balance AS balance FROM User u WHERE u.id IN :ids")
+    List<TransferPartyView> findTransferPartiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.balance AS balance, u.version AS version FROM User u WHERE u.id = :id")
+    Optional<UserBalanceView> findBalanceById(@Param("id") Long id);
+
+    // Optimistic write: only succeeds if nobody touched the row since it was read
+    @Modifying
+    @Query("UPDATE User u SET u.balance = :newBalance, u.version = u.version + 1, u.updatedAt = :now " +
+            "WHERE u.id = :id AND u.version = :expectedVersion")
+    int compareAndSetBalance(@Param("id") Long id,
+                             @Param("expectedVersion") Long expectedVersion,
+                             @Param("newBalance") Money newBalance,
+                             @Param("now") Instant now);
+
+    // The arithmetic updates are native because JPQL arithmetic does not accept the Money type;
+    // amounts are bound as centavos
+
+    // Conditional write: the balance check and the debit happen in a single statement
+    @Modifying
+    @Query(value = "UPDATE users SET balance = balance - :amountCents / 100.0, version = version + 1, updated_at = :now " +
+            "WHERE id = :id AND balance >= :amountCents / 100.0",
+            nativeQuery = true)
+    int debitIfSufficientBalance(@Param("id") Long id, @Param("amountCents") long amountCents, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "UPDATE users SET balance = balance + :amountCents / 100.0, version = version + 1, updated_at = :now " +
+            "WHERE id = :id",
+            nativeQuery = true)
+    int credit(@Param("id") Long id, @Param("amountCents") long amountCents, @Param("now") Instant now);
+
+    // Adds the credit to one of the user's balance stripes instead of its users row; zero rows means an unknown user
+    @Modifying
+    @Query(value = "INSERT INTO balance_stripes (user_id, stripe, balance, updated_at) " +
+            "SELECT id, :stripe, :amountCents / 100.0, :now FROM users WHERE id = :id " +
+            "ON CONFLICT (user_id, stripe) DO UPDATE " +
+            "SET balance = balance_stripes.balance + EXCLUDED.balance, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int creditStripe(@Param("id") Long id, @Param("stripe") int stripe, @Param("amountCents") long amountCents, @Param("now") Instant now);
+
+    // Credits not yet consolidated into users.balance; only worth reading with balance striping enabled
+    @Query(value = "SELECT COALESCE(SUM(balance), 0) FROM balance_stripes WHERE user_id = :id", nativeQuery = true)
+    BigDecimal sumStripesByUserId(@Param("id") Long id);
+
+    @Query(value = "SELECT user_id AS \"userId\", SUM(balance) AS \"balance\" FROM balance_stripes " +
+            "WHERE user_id IN :ids GROUP BY user_id",
+            nativeQuery = true)
+    List<StripedBalanceView> sumStripesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT DISTINCT user_id FROM balance_stripes", nativeQuery = true)
+    List<Long> findStripedUserIds();
+
+    // Moves the stripes of one user into users.balance. Stripes held by in-flight credits are skipped
+    // and left for the next run, so consolidation never waits behind, or deadlocks with, a transfer
+    @Modifying
+    @Query(value = "WITH drained AS (" +
+            "DELETE FROM balance_stripes WHERE (user_id, stripe) IN (" +
+            "SELECT user_id, stripe FROM balance_stripes WHERE user_id = :id FOR UPDATE SKIP LOCKED) " +
+            "RETURNING balance) " +
+            "UPDATE users SET balance = balance + (SELECT SUM(balance) FROM drained), version = version + 1, updated_at = :now " +
+            "WHERE id = :id AND EXISTS (SELECT 1 FROM drained)",
+            nativeQuery = true)
+    int consolidateStripes(@Param("id") Long id, @Param("now") Instant now);
 }
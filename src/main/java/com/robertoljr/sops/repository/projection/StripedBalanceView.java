@@ -0,0 +1,11 @@
+package com.robertoljr.sops.repository.projection;
+
+import java.math.BigDecimal;
+
+// Sum of a user's balance stripes, for a page of users at once
+public interface StripedBalanceView {
+
+    Long getUserId();
+
+    BigDecimal getBalance();
+}
@@ -0,0 +1,14 @@
+package com.robertoljr.sops.repository.projection;
+
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.money.Money;
+
+// What the pre-transfer checks need to know about a sender or recipient
+public interface TransferPartyView {
+
+    Long getId();
+
+    UserType getUserType();
+
+    Money getBalance();
+}
@@ -0,0 +1,10 @@
+package com.robertoljr.sops.repository.projection;
+
+import com.robertoljr.sops.money.Money;
+
+public interface UserBalanceView {
+
+    Money getBalance();
+
+    Long getVersion();
+}
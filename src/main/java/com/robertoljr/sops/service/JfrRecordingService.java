@@ -0,0 +1,19 @@
+package com.robertoljr.sops.service;
+
+import com.robertoljr.sops.constant.diagnostics.RecordingSettings;
+import com.robertoljr.sops.dto.diagnostics.JfrRecordingDTO;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface JfrRecordingService {
+
+    JfrRecordingDTO startRecording(RecordingSettings settings, long maxAgeSeconds, long maxSizeMb, long durationSeconds);
+
+    JfrRecordingDTO stopRecording();
+
+    Optional<JfrRecordingDTO> findRecording();
+
+    // Writes the data recorded so far to a temporary file; the caller deletes it
+    Path dumpRecording();
+}
@@ -0,0 +1,193 @@
+package com.robertoljr.sops.service;
+
+import com.robertoljr.sops.constant.diagnostics.RecordingSettings;
+import com.robertoljr.sops.dto.diagnostics.JfrRecordingDTO;
+import com.robertoljr.sops.exception.diagnostics.RecordingStateException;
+import com.robertoljr.sops.jfr.AuthorizerCallEvent;
+import com.robertoljr.sops.jfr.NotificationSendEvent;
+import com.robertoljr.sops.jfr.RepositoryQueryEvent;
+import com.robertoljr.sops.jfr.TransferEvent;
+import com.robertoljr.sops.jfr.TransferStageEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds at most one on-demand JFR recording. Recordings are bounded: data older than the max age
+ * or beyond the max size is discarded as new data arrives, and both are capped by configuration
+ * so a forgotten recording cannot fill the disk.
+ */
+@Service
+public class JfrRecordingServiceImpl implements JfrRecordingService {
+
+    private static final String RECORDING_NAME = "sops-on-demand";
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(JfrRecordingServiceImpl.class);
+
+    private final Duration maxAgeLimit;
+    private final long maxSizeLimitBytes;
+    private final Duration slowQueryThreshold;
+
+    // Guards the fields below. A lock rather than synchronized, since dumping writes a file and a
+    // virtual thread blocked on I/O inside a monitor pins its carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+    private RecordingSettings settings;
+
+    public JfrRecordingServiceImpl(
+            @Value("${sops.jfr.max-age-limit-s:3600}") long maxAgeLimitSeconds,
+            @Value("${sops.jfr.max-size-limit-mb:512}") long maxSizeLimitMb,
+            @Value("${sops.jfr.slow-query-threshold-ms:20}") long slowQueryThresholdMs) {
+        this.maxAgeLimit = Duration.ofSeconds(maxAgeLimitSeconds);
+        this.maxSizeLimitBytes = maxSizeLimitMb * BYTES_PER_MB;
+        this.slowQueryThreshold = Duration.ofMillis(slowQueryThresholdMs);
+    }
+
+    @PreDestroy
+    void close() {
+        lock.lock();
+        try {
+            if (recording != null) {
+                recording.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public JfrRecordingDTO startRecording(RecordingSettings settings, long maxAgeSeconds, long maxSizeMb, long durationSeconds) {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                throw new RecordingStateException("A JFR recording is already running. Stop it before starting another.");
+            }
+
+            Recording next;
+            try {
+                next = new Recording(Configuration.getConfiguration(settings.configurationName()));
+            } catch (IOException | ParseException ex) {
+                throw new IllegalStateException("Could not load the JFR " + settings.configurationName() + " settings", ex);
+            }
+
+            Duration maxAge = clamp(Duration.ofSeconds(maxAgeSeconds), maxAgeLimit);
+            next.setName(RECORDING_NAME);
+            next.setToDisk(true);
+            next.setMaxAge(maxAge);
+            next.setMaxSize(Math.min(Math.max(maxSizeMb, 1) * BYTES_PER_MB, maxSizeLimitBytes));
+            if (durationSeconds > 0) {
+                next.setDuration(clamp(Duration.ofSeconds(durationSeconds), maxAgeLimit));
+            }
+
+            // The application events are on by default; the repository threshold comes from configuration
+            next.enable(TransferEvent.class);
+            next.enable(TransferStageEvent.class);
+            next.enable(AuthorizerCallEvent.class);
+            next.enable(NotificationSendEvent.class);
+            next.enable(RepositoryQueryEvent.class).withThreshold(slowQueryThreshold);
+            // Virtual threads blocked while pinned to their carrier thread
+            next.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+            // The dump leaves the host: keep out environment variables, system properties and JVM
+            // arguments, which may carry the datasource password or other credentials
+            next.disable("jdk.InitialEnvironmentVariable");
+            next.disable("jdk.InitialSystemProperty");
+            next.disable("jdk.JVMInformation");
+            next.start();
+
+            // The previous, stopped recording is only kept around to be dumped
+            if (recording != null) {
+                recording.close();
+            }
+            recording = next;
+            this.settings = settings;
+            logger.info("Started JFR recording {} with {} settings, max age {}s, max size {} bytes",
+                    next.getId(), settings, maxAge.toSeconds(), next.getMaxSize());
+            return toDTO(next);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public JfrRecordingDTO stopRecording() {
+        lock.lock();
+        try {
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                throw new RecordingStateException("No JFR recording is running.");
+            }
+
+            recording.stop();
+            logger.info("Stopped JFR recording {}", recording.getId());
+            return toDTO(recording);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<JfrRecordingDTO> findRecording() {
+        lock.lock();
+        try {
+            return Optional.ofNullable(recording).map(this::toDTO);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Path dumpRecording() {
+        lock.lock();
+        try {
+            if (recording == null) {
+                throw new RecordingStateException("No JFR recording has been started.");
+            }
+
+            try {
+                Path file = Files.createTempFile("sops-", ".jfr");
+                recording.dump(file);
+                logger.info("Dumped JFR recording {} to {} ({} bytes)", recording.getId(), file, Files.size(file));
+                return file;
+            } catch (IOException ex) {
+                throw new IllegalStateException("Could not dump the JFR recording", ex);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private JfrRecordingDTO toDTO(Recording recording) {
+        return new JfrRecordingDTO(
+                recording.getId(),
+                recording.getName(),
+                recording.getState().name(),
+                settings,
+                recording.getStartTime(),
+                recording.getStopTime(),
+                recording.getMaxAge() != null ? recording.getMaxAge().toSeconds() : 0,
+                recording.getMaxSize(),
+                recording.getDuration() != null ? recording.getDuration().toSeconds() : 0,
+                recording.getSize()
+        );
+    }
+
+    private static Duration clamp(Duration requested, Duration limit) {
+        if (requested.compareTo(Duration.ofSeconds(1)) < 0) {
+            return Duration.ofSeconds(1);
+        }
+        return requested.compareTo(limit) > 0 ? limit : requested;
+    }
+}
@@ -1,6 +1,7 @@
 package com.robertoljr.sops.service;
 
 import com.robertoljr.sops.constant.notification.Status;
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.notification.NotificationCreateDTO;
 import com.robertoljr.sops.dto.notification.NotificationResponseDTO;
 import com.robertoljr.sops.dto.notification.NotificationUpdateStatusDTO;
@@ -16,19 +17,33 @@ public interface NotificationService {
 
     NotificationResponseDTO createNotification(NotificationCreateDTO dto);
 
-    List<NotificationResponseDTO> findAllNotifications();
+    List<NotificationResponseDTO> createNotifications(List<NotificationCreateDTO> dtos);
+
+    NotificationResponseDTO enqueueNotification(NotificationCreateDTO dto);
+
+    List<NotificationResponseDTO> enqueueNotifications(List<NotificationCreateDTO> dtos);
+
+    boolean isOutboxEnabled();
+
+    CursorPageDTO<NotificationResponseDTO> findAllNotifications(String cursor, int size);
 
     NotificationResponseDTO findNotificationById(Long id);
 
-    List<NotificationResponseDTO> findNotificationByUserId(Long userId);
+    CursorPageDTO<NotificationResponseDTO> findNotificationByUserId(Long userId, String cursor, int size);
 
-    List<NotificationResponseDTO> findNotificationByTransactionId(Long transactionId);
+    CursorPageDTO<NotificationResponseDTO> findNotificationByTransactionId(Long transactionId, String cursor, int size);
 
-    List<NotificationResponseDTO> findNotificationByStatus(Status status);
+    CursorPageDTO<NotificationResponseDTO> findNotificationByStatus(Status status, String cursor, int size);
 
-    List<NotificationResponseDTO> findNotificationByCreatedAtBetween(Instant start, Instant end);
+    CursorPageDTO<NotificationResponseDTO> findNotificationByCreatedAtBetween(Instant start, Instant end, String cursor, int size);
 
     NotificationResponseDTO updateStatus(Long id, NotificationUpdateStatusDTO dto);
 
     void deleteNotification(Long id);
+
+    // Sends the notification perform_transfer recorded as FAILED for the transaction and marks it SENT if the notifier accepts it
+    boolean sendTransactionNotification(Long transactionId);
+
+    // Sends the notification queued in the given outbox row; true if the notifier accepted it
+    boolean deliverOutboxEntry(Long outboxId);
 }
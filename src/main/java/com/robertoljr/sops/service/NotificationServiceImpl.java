@@ -1,21 +1,30 @@
 package com.robertoljr.sops.service;
 
+import com.robertoljr.sops.constant.notification.Channel;
 import com.robertoljr.sops.constant.notification.Status;
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.notification.NotificationCreateDTO;
 import com.robertoljr.sops.dto.notification.NotificationResponseDTO;
 import com.robertoljr.sops.dto.notification.NotificationUpdateStatusDTO;
 import com.robertoljr.sops.entity.Notification;
+import com.robertoljr.sops.entity.NotificationOutbox;
 import com.robertoljr.sops.exception.notification.NotificationNotFoundException;
 import com.robertoljr.sops.exception.transaction.TransactionNotFoundException;
 import com.robertoljr.sops.exception.transaction.TransactionUpdateStatusException;
 import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.jfr.NotificationSendEvent;
 import com.robertoljr.sops.mapper.NotificationMapper;
+import com.robertoljr.sops.metrics.NotificationMetrics;
+import com.robertoljr.sops.repository.NotificationOutboxRepository;
 import com.robertoljr.sops.repository.NotificationRepository;
 import com.robertoljr.sops.repository.TransactionRepository;
 import com.robertoljr.sops.repository.UserRepository;
+import com.robertoljr.sops.service.pagination.PageCursor;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 
 @Service
+@Observed(name = "sops.service")
 public class NotificationServiceImpl implements NotificationService {
 
     private final Logger logger = LoggerFactory.getLogger(NotificationServiceImpl.class);
@@ -35,6 +45,10 @@ public class NotificationServiceImpl implements NotificationService {
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
     private final RestTemplate restTemplate;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final boolean outboxEnabled;
+    private final String notifierUrl;
+    private final NotificationMetrics notificationMetrics;
 
     @Autowired
     public NotificationServiceImpl(
@@ -42,12 +56,20 @@ public class NotificationServiceImpl implements NotificationService {
             NotificationMapper notificationMapper,
             UserRepository userRepository,
             TransactionRepository transactionRepository,
-            RestTemplate restTemplate) {
+            RestTemplate restTemplate,
+            NotificationOutboxRepository notificationOutboxRepository,
+            @Value("${sops.notification.outbox.enabled:true}") boolean outboxEnabled,
+            @Value("${sops.notifier.url:https://util.devi.tools/api/v1/notify}") String notifierUrl,
+            NotificationMetrics notificationMetrics) {
         this.notificationRepository = notificationRepository;
         this.notificationMapper = notificationMapper;
         this.userRepository = userRepository;
         this.transactionRepository = transactionRepository;
         this.restTemplate = restTemplate;
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.outboxEnabled = outboxEnabled;
+        this.notifierUrl = notifierUrl;
+        this.notificationMetrics = notificationMetrics;
     }
 
     @Override
@@ -66,9 +88,9 @@ public class NotificationServiceImpl implements NotificationService {
         }
 
         // Check if the notification service is available
-        boolean isNotificationServiceAvailable = isNotificationServiceAvailable();
+        boolean isNotificationServiceAvailable = send(dto.transactionId(), 0, 1);
 
-        Notification notification = notificationMapper.toEntity(dto);
+        Notification notification = toEntity(dto);
         if (isNotificationServiceAvailable) {
             notification.setStatus(Status.SENT);
             notification.setSentAt(Instant.now());
@@ -76,20 +98,88 @@ public class NotificationServiceImpl implements NotificationService {
             notification.setStatus(Status.FAILED);
         }
         notificationRepository.save(notification);
+        notificationMetrics.record(notification.getStatus(), notification.getChannel());
 
         return notificationMapper.toResponseDTO(notification);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<NotificationResponseDTO> findAllNotifications() {
-        logger.info("Retrieving all notifications");
+    @Transactional
+    public List<NotificationResponseDTO> createNotifications(List<NotificationCreateDTO> dtos) {
+        logger.info("Creating {} notifications", dtos.size());
+
+        // Users and transactions are enforced by foreign keys, and the notifier is checked once for the whole list
+        boolean isNotificationServiceAvailable = send(0, 0, dtos.size());
+        Instant sentAt = Instant.now();
+
+        List<Notification> notifications = dtos.stream()
+                .map(dto -> {
+                    Notification notification = toEntity(dto);
+                    if (isNotificationServiceAvailable) {
+                        notification.setStatus(Status.SENT);
+                        notification.setSentAt(sentAt);
+                    } else {
+                        notification.setStatus(Status.FAILED);
+                    }
+                    return notification;
+                })
+                .toList();
+
+        notifications = notificationRepository.saveAll(notifications);
+        notifications.forEach(notification -> notificationMetrics.record(notification.getStatus(), notification.getChannel()));
 
-        return notificationRepository.findAll().stream()
+        return notifications.stream()
                 .map(notificationMapper::toResponseDTO)
                 .toList();
     }
 
+    @Override
+    @Transactional
+    public NotificationResponseDTO enqueueNotification(NotificationCreateDTO dto) {
+        return enqueueNotifications(List.of(dto)).get(0);
+    }
+
+    @Override
+    @Transactional
+    public List<NotificationResponseDTO> enqueueNotifications(List<NotificationCreateDTO> dtos) {
+        if (!outboxEnabled) {
+            return createNotifications(dtos);
+        }
+        logger.info("Enqueuing {} notifications", dtos.size());
+
+        // Written in the caller's transaction and delivered later by NotificationOutboxDispatcher
+        List<Notification> notifications = dtos.stream()
+                .map(dto -> {
+                    Notification notification = toEntity(dto);
+                    notification.setStatus(Status.PENDING);
+                    return notification;
+                })
+                .toList();
+        notifications = notificationRepository.saveAll(notifications);
+        notifications.forEach(notification -> notificationMetrics.record(Status.PENDING, notification.getChannel()));
+        notificationOutboxRepository.saveAll(notifications.stream()
+                .map(NotificationOutbox::new)
+                .toList());
+
+        return notifications.stream()
+                .map(notificationMapper::toResponseDTO)
+                .toList();
+    }
+
+    @Override
+    public boolean isOutboxEnabled() {
+        return outboxEnabled;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NotificationResponseDTO> findAllNotifications(String cursor, int size) {
+        logger.info("Retrieving all notifications");
+
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(notificationRepository.findPage(after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public NotificationResponseDTO findNotificationById(Long id) {
@@ -102,42 +192,38 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<NotificationResponseDTO> findNotificationByUserId(Long userId) {
+    public CursorPageDTO<NotificationResponseDTO> findNotificationByUserId(Long userId, String cursor, int size) {
         logger.info("Retrieving notifications by user id {}", userId);
 
-        return notificationRepository.findByUserId(userId).stream()
-                .map(notificationMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(notificationRepository.findPageByUserId(userId, after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<NotificationResponseDTO> findNotificationByTransactionId(Long transactionId) {
+    public CursorPageDTO<NotificationResponseDTO> findNotificationByTransactionId(Long transactionId, String cursor, int size) {
         logger.info("Retrieving notifications by transaction id {}", transactionId);
 
-        return notificationRepository.findByTransactionId(transactionId).stream()
-                .map(notificationMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(notificationRepository.findPageByTransactionId(transactionId, after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<NotificationResponseDTO> findNotificationByStatus(Status status) {
+    public CursorPageDTO<NotificationResponseDTO> findNotificationByStatus(Status status, String cursor, int size) {
         logger.info("Retrieving notifications by status {}", status);
 
-        return notificationRepository.findByStatus(status).stream()
-                .map(notificationMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(notificationRepository.findPageByStatus(status, after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<NotificationResponseDTO> findNotificationByCreatedAtBetween(Instant start, Instant end) {
+    public CursorPageDTO<NotificationResponseDTO> findNotificationByCreatedAtBetween(Instant start, Instant end, String cursor, int size) {
         logger.info("Retrieving notifications by createdAt between {} and {}", start, end);
 
-        return notificationRepository.findByCreatedAtBetween(start, end).stream()
-                .map(notificationMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(notificationRepository.findPageByCreatedAtBetween(start, end, after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
@@ -151,6 +237,7 @@ public class NotificationServiceImpl implements NotificationService {
 
         dbNotification.setStatus(dto.newStatus());
         dbNotification = notificationRepository.save(dbNotification);
+        notificationMetrics.record(dbNotification.getStatus(), dbNotification.getChannel());
         logger.info("Updated status for notification id {} to {}", id, dto.newStatus());
         return notificationMapper.toResponseDTO(dbNotification);
     }
@@ -168,21 +255,63 @@ public class NotificationServiceImpl implements NotificationService {
         logger.info("Deleted notification with id {}", id);
     }
 
-    private boolean isValidUser(Long userId) {
-        return userRepository.existsById(userId);
+    @Override
+    @Transactional
+    public boolean sendTransactionNotification(Long transactionId) {
+        boolean delivered = send(transactionId, 0, 1);
+        if (delivered) {
+            notificationRepository.markSentByTransactionId(transactionId, Instant.now());
+        }
+        notificationMetrics.record(delivered ? Status.SENT : Status.FAILED, Channel.EMAIL);
+        return delivered;
     }
 
-    private boolean isValidTransaction(Long transactionId) {
-        return transactionRepository.existsById(transactionId);
+    @Override
+    public boolean deliverOutboxEntry(Long outboxId) {
+        return send(0, outboxId, 1);
+    }
+
+    // The mapper's id-only User looks transient to Hibernate now that users are versioned, so both
+    // associations are replaced with references
+    private Notification toEntity(NotificationCreateDTO dto) {
+        Notification notification = notificationMapper.toEntity(dto);
+        notification.setUser(userRepository.getReferenceById(dto.userId()));
+        notification.setTransaction(transactionRepository.getReferenceById(dto.transactionId()));
+        return notification;
     }
 
-    private boolean isNotificationServiceAvailable() {
+    // Calls the notifier once on behalf of the given notifications; ids are 0 when not known
+    private boolean send(long transactionId, long outboxId, int notifications) {
+        NotificationSendEvent event = new NotificationSendEvent();
+        event.begin();
+        boolean delivered = false;
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity("https://util.devi.tools/api/v1/notify", Map.class);
-            return response.getStatusCode().is2xxSuccessful();
+            ResponseEntity<Map> response = restTemplate.getForEntity(notifierUrl, Map.class);
+            delivered = response.getStatusCode().is2xxSuccessful();
         } catch (Exception ex) {
             logger.error("Exception: {}", ex.getMessage());
-            return false;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.transactionId = transactionId;
+                event.outboxId = outboxId;
+                event.notifications = notifications;
+                event.delivered = delivered;
+                event.commit();
+            }
         }
+        return delivered;
+    }
+
+    private CursorPageDTO<NotificationResponseDTO> toPage(List<Notification> rows, int size) {
+        return PageCursor.toPage(rows, size, row -> new PageCursor(row.getCreatedAt(), row.getId()), notificationMapper::toResponseDTO);
+    }
+
+    private boolean isValidUser(Long userId) {
+        return userRepository.existsById(userId);
+    }
+
+    private boolean isValidTransaction(Long transactionId) {
+        return transactionRepository.existsById(transactionId);
     }
 }
@@ -0,0 +1,45 @@
+package com.robertoljr.sops.service;
+
+import com.robertoljr.sops.constant.transaction.ExportFormat;
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.dto.CursorPageDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionBatchDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionBatchDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.dto.transaction.TransactionExportFilterDTO;
+import com.robertoljr.sops.dto.transaction.UpdateStatusDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// Non-blocking counterpart of TransactionService and TransactionExportService for the "reactive" profile
+public interface ReactiveTransactionService {
+
+    Mono<ResponseTransactionDTO> createTransaction(CreateTransactionDTO dto);
+
+    // A non-null idempotencyKey makes retries of the same request return the first result
+    Mono<ResponseTransactionDTO> createTransaction(CreateTransactionDTO dto, String idempotencyKey);
+
+    Mono<ResponseTransactionBatchDTO> createTransactions(CreateTransactionBatchDTO dto);
+
+    Mono<CursorPageDTO<ResponseTransactionDTO>> findAllTransactions(String cursor, int size);
+
+    Mono<ResponseTransactionDTO> findTransactionById(Long id);
+
+    Mono<CursorPageDTO<ResponseTransactionDTO>> findTransactionsBySenderId(Long senderId, String cursor, int size);
+
+    Mono<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByRecipientId(Long recipientId, String cursor, int size);
+
+    Mono<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByStatus(Status status, String cursor, int size);
+
+    Mono<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByCreatedAtBetween(Instant start, Instant end, String cursor, int size);
+
+    // One line per transaction, each ending in a newline; CSV starts with the header line
+    Flux<String> exportTransactions(TransactionExportFilterDTO filter, ExportFormat format);
+
+    Mono<ResponseTransactionDTO> updateStatus(Long id, UpdateStatusDTO status);
+
+    Mono<Void> deleteTransaction(Long id);
+}
@@ -0,0 +1,411 @@
+package com.robertoljr.sops.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.robertoljr.sops.client.ReactiveAuthorizerClient;
+import com.robertoljr.sops.client.ReactiveNotifierClient;
+import com.robertoljr.sops.constant.notification.Channel;
+import com.robertoljr.sops.constant.transaction.BatchItemStatus;
+import com.robertoljr.sops.constant.transaction.ExportFormat;
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.constant.transaction.TransferExecutionMode;
+import com.robertoljr.sops.dto.CursorPageDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionBatchDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionBatchDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.dto.transaction.TransactionBatchItemDTO;
+import com.robertoljr.sops.dto.transaction.TransactionExportFilterDTO;
+import com.robertoljr.sops.dto.transaction.UpdateStatusDTO;
+import com.robertoljr.sops.entity.reactive.TransactionRow;
+import com.robertoljr.sops.entity.reactive.UserRow;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.exception.transaction.TransactionNotAllowedException;
+import com.robertoljr.sops.exception.transaction.TransactionNotFoundException;
+import com.robertoljr.sops.exception.transaction.TransactionUpdateStatusException;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.mapper.TransactionMapper;
+import com.robertoljr.sops.metrics.NotificationMetrics;
+import com.robertoljr.sops.metrics.TransferMetrics;
+import com.robertoljr.sops.repository.ReactiveNotificationRepository;
+import com.robertoljr.sops.repository.ReactiveTransactionRepository;
+import com.robertoljr.sops.repository.ReactiveUserRepository;
+import com.robertoljr.sops.service.idempotency.IdempotencyKeyStore;
+import com.robertoljr.sops.service.pagination.PageCursor;
+import com.robertoljr.sops.service.validation.TransferViolation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Transfers on R2DBC and WebClient: no thread is held while the authorizer, the notifier or the
+ * database is working, so thousands of transfers waiting on the authorizer cost a few objects
+ * each instead of a thread stack.
+ * <p>
+ * Balances are applied with the conditional UPDATEs of the CONDITIONAL balance update mode, so the
+ * sender's balance is re-checked by the debit itself. With the outbox enabled the notification is
+ * enqueued in the transfer's transaction; otherwise the notifier is called after the commit.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+
+    private final Logger logger = LoggerFactory.getLogger(ReactiveTransactionServiceImpl.class);
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveNotificationRepository notificationRepository;
+    private final ReactiveAuthorizerClient authorizerClient;
+    private final ReactiveNotifierClient notifierClient;
+    private final TransactionMapper transactionMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectMapper objectMapper;
+    private final boolean outboxEnabled;
+    private final TransferMetrics transferMetrics;
+    private final NotificationMetrics notificationMetrics;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+
+    @Autowired
+    public ReactiveTransactionServiceImpl(
+            ReactiveUserRepository userRepository,
+            ReactiveTransactionRepository transactionRepository,
+            ReactiveNotificationRepository notificationRepository,
+            ReactiveAuthorizerClient authorizerClient,
+            ReactiveNotifierClient notifierClient,
+            TransactionMapper transactionMapper,
+            ReactiveTransactionManager reactiveTransactionManager,
+            ObjectMapper objectMapper,
+            @Value("${sops.notification.outbox.enabled:true}") boolean outboxEnabled,
+            @Value("${sops.transaction.execution-mode:JPA}") TransferExecutionMode transferExecutionMode,
+            TransferMetrics transferMetrics,
+            NotificationMetrics notificationMetrics,
+            IdempotencyKeyStore idempotencyKeyStore) {
+        // The in-memory ledger assumes it is the only writer of users.balance
+        if (transferExecutionMode == TransferExecutionMode.LEDGER) {
+            throw new IllegalStateException("The reactive profile cannot be combined with the LEDGER execution mode.");
+        }
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.notificationRepository = notificationRepository;
+        this.authorizerClient = authorizerClient;
+        this.notifierClient = notifierClient;
+        this.transactionMapper = transactionMapper;
+        this.transactionalOperator = TransactionalOperator.create(reactiveTransactionManager);
+        this.objectMapper = objectMapper;
+        this.outboxEnabled = outboxEnabled;
+        this.transferMetrics = transferMetrics;
+        this.notificationMetrics = notificationMetrics;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+    }
+
+    @Override
+    public Mono<ResponseTransactionDTO> createTransaction(CreateTransactionDTO dto) {
+        logger.info("Creating transaction with sender id: {}", dto.getSenderId());
+        logger.info("Creating transaction with recipient id: {}", dto.getRecipientId());
+
+        return findValidSender(dto)
+                .flatMap(sender -> authorizerClient.authorize()
+                        .flatMap(isAuthorized -> transfer(dto, sender, isAuthorized)))
+                .map(transactionMapper::toResponseDTO)
+                .doOnNext(transaction -> transferMetrics.recordTransaction(transaction.status()));
+    }
+
+    // The key store is shared with the servlet stack and runs on JDBC, so a keyed request holds a
+    // bounded elastic thread until its transfer completes; requests without a key stay non-blocking
+    @Override
+    public Mono<ResponseTransactionDTO> createTransaction(CreateTransactionDTO dto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createTransaction(dto);
+        }
+        return Mono.fromCallable(() -> idempotencyKeyStore.execute(idempotencyKey, dto, () -> createTransaction(dto).block()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Each item is validated, authorized and applied in its own short transaction, in batch order, and
+    // a failing item is reported instead of failing the batch
+    @Override
+    public Mono<ResponseTransactionBatchDTO> createTransactions(CreateTransactionBatchDTO dto) {
+        List<CreateTransactionDTO> items = dto.getTransactions();
+        logger.info("Creating batch of {} transactions", items.size());
+
+        return Flux.range(0, items.size())
+                .concatMap(index -> createBatchItem(index, items.get(index)))
+                .onErrorResume(ex -> {
+                    logger.error("Failed to create batch of {} transactions:", items.size(), ex);
+                    return Flux.fromStream(IntStream.range(0, items.size()).mapToObj(index -> new TransactionBatchItemDTO(
+                            index, BatchItemStatus.REJECTED, null, "An unexpected error occurred while creating the transaction.")));
+                })
+                .collectList()
+                .map(results -> {
+                    results.stream()
+                            .filter(result -> result.transaction() != null)
+                            .forEach(result -> transferMetrics.recordTransaction(result.transaction().status()));
+
+                    Map<BatchItemStatus, Long> counts = results.stream()
+                            .collect(Collectors.groupingBy(TransactionBatchItemDTO::status, Collectors.counting()));
+                    return new ResponseTransactionBatchDTO(
+                            items.size(),
+                            counts.getOrDefault(BatchItemStatus.SUCCEEDED, 0L).intValue(),
+                            counts.getOrDefault(BatchItemStatus.FAILED, 0L).intValue(),
+                            counts.getOrDefault(BatchItemStatus.REJECTED, 0L).intValue(),
+                            results
+                    );
+                });
+    }
+
+    @Override
+    public Mono<CursorPageDTO<ResponseTransactionDTO>> findAllTransactions(String cursor, int size) {
+        logger.info("Retrieving all transactions");
+
+        return Mono.defer(() -> {
+            PageCursor after = PageCursor.decode(cursor);
+            return toPage(transactionRepository.findPage(after.createdAt(), after.id(), limitFor(size)), size);
+        });
+    }
+
+    @Override
+    public Mono<ResponseTransactionDTO> findTransactionById(Long id) {
+        logger.info("Retrieving transaction with id {}", id);
+
+        return getTransactionOrError(id).map(transactionMapper::toResponseDTO);
+    }
+
+    @Override
+    public Mono<CursorPageDTO<ResponseTransactionDTO>> findTransactionsBySenderId(Long senderId, String cursor, int size) {
+        logger.info("Retrieving transactions by sender id {}", senderId);
+
+        return Mono.defer(() -> {
+            PageCursor after = PageCursor.decode(cursor);
+            return toPage(transactionRepository.findPageBySenderId(senderId, after.createdAt(), after.id(), limitFor(size)), size);
+        });
+    }
+
+    @Override
+    public Mono<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByRecipientId(Long recipientId, String cursor, int size) {
+        logger.info("Retrieving transactions by recipient id {}", recipientId);
+
+        return Mono.defer(() -> {
+            PageCursor after = PageCursor.decode(cursor);
+            return toPage(transactionRepository.findPageByRecipientId(recipientId, after.createdAt(), after.id(), limitFor(size)), size);
+        });
+    }
+
+    @Override
+    public Mono<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByStatus(Status status, String cursor, int size) {
+        logger.info("Retrieving transactions by status {}", status);
+
+        return Mono.defer(() -> {
+            PageCursor after = PageCursor.decode(cursor);
+            return toPage(transactionRepository.findPageByStatus(status.name(), after.createdAt(), after.id(), limitFor(size)), size);
+        });
+    }
+
+    @Override
+    public Mono<CursorPageDTO<ResponseTransactionDTO>> findTransactionsByCreatedAtBetween(Instant start, Instant end, String cursor, int size) {
+        logger.info("Retrieving transactions by createdAt between {} and {}", start, end);
+
+        return Mono.defer(() -> {
+            PageCursor after = PageCursor.decode(cursor);
+            return toPage(transactionRepository.findPageByCreatedAtBetween(start, end, after.createdAt(), after.id(), limitFor(size)), size);
+        });
+    }
+
+    // Rows are written as the driver reads them; a slow client slows the read instead of buffering
+    @Override
+    public Flux<String> exportTransactions(TransactionExportFilterDTO filter, ExportFormat format) {
+        logger.info("Exporting transactions as {} with filter {}", format, filter);
+
+        Flux<String> lines = transactionRepository.streamForExport(
+                        filter.senderId(),
+                        filter.recipientId(),
+                        filter.status() != null ? filter.status().name() : null,
+                        filter.start(),
+                        filter.end())
+                .map(transactionMapper::toResponseDTO)
+                .handle((dto, sink) -> {
+                    try {
+                        sink.next((format == ExportFormat.CSV ? TransactionExportServiceImpl.toCsv(dto) : objectMapper.writeValueAsString(dto)) + "\n");
+                    } catch (JsonProcessingException ex) {
+                        sink.error(ex);
+                    }
+                });
+        return format == ExportFormat.CSV
+                ? Flux.concat(Mono.just(TransactionExportServiceImpl.CSV_HEADER + "\n"), lines)
+                : lines;
+    }
+
+    @Override
+    public Mono<ResponseTransactionDTO> updateStatus(Long id, UpdateStatusDTO dto) {
+        logger.info("Updating status for transaction id {}", id);
+
+        Status newStatus;
+        try {
+            newStatus = Status.valueOf(dto.getStatus().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            logger.error("Invalid status value: {}", dto.getStatus());
+            return Mono.error(new TransactionUpdateStatusException("Invalid status value: " + dto.getStatus()));
+        }
+
+        return transactionRepository.updateStatus(id, newStatus.name(), Instant.now())
+                .flatMap(updated -> updated == 0 ? Mono.error(notFound(id)) : getTransactionOrError(id))
+                .map(transactionMapper::toResponseDTO)
+                .doOnNext(transaction -> logger.info("Updated status for transaction id {} to {}", id, newStatus));
+    }
+
+    @Override
+    public Mono<Void> deleteTransaction(Long id) {
+        logger.info("Deleting transaction with id {}", id);
+
+        return getTransactionOrError(id)
+                .flatMap(transaction -> transactionRepository.deleteById(transaction.id()))
+                .doOnSuccess(ignored -> logger.info("Deleted transaction with id {}", id));
+    }
+
+    // Both users in one query; the same rules as TransactionServiceImpl.isTransactionValid
+    private Mono<UserRow> findValidSender(CreateTransactionDTO dto) {
+        return userRepository.findAllById(List.of(dto.getSenderId(), dto.getRecipientId()))
+                .collectMap(UserRow::id, Function.identity())
+                .map(users -> {
+                    UserRow sender = users.get(dto.getSenderId());
+                    if (sender == null) {
+                        throw new UserNotFoundException("User not found for id: " + dto.getSenderId());
+                    }
+                    if (!users.containsKey(dto.getRecipientId())) {
+                        throw new UserNotFoundException("User not found for id: " + dto.getRecipientId());
+                    }
+
+                    TransferViolation violation = TransferViolation.check(
+                            sender.userType(), sender.id(), dto.getRecipientId(), sender.balance(), dto.getAmount());
+                    // MERCHANT senders are rejected as not allowed; every other violation fails the creation
+                    if (violation == TransferViolation.MERCHANT_SENDER) {
+                        throw new TransactionNotAllowedException(violation.message());
+                    }
+                    if (violation != null) {
+                        throw new TransactionCreationException(violation.message());
+                    }
+                    return sender;
+                });
+    }
+
+    private Mono<TransactionRow> transfer(CreateTransactionDTO dto, UserRow sender, boolean isAuthorized) {
+        Mono<TransactionRow> transfer = applyBalances(dto, isAuthorized)
+                .flatMap(status -> transactionRepository.insert(
+                        dto.getSenderId(),
+                        dto.getRecipientId(),
+                        dto.getAmount().toBigDecimal(),
+                        status.name(),
+                        dto.getDescription()))
+                .flatMap(transaction -> outboxEnabled
+                        ? enqueueNotification(dto, sender, transaction).thenReturn(transaction)
+                        : Mono.just(transaction));
+
+        return transactionalOperator.transactional(transfer)
+                .flatMap(transaction -> outboxEnabled
+                        ? Mono.just(transaction)
+                        : sendNotification(dto, sender, transaction).thenReturn(transaction))
+                .doOnNext(transaction -> logger.info("Transaction {} created with status {}", transaction.id(), transaction.status()))
+                .onErrorMap(ex -> !(ex instanceof TransactionCreationException || ex instanceof TransactionConflictException
+                        || ex instanceof UserNotFoundException), ex -> {
+                    logger.error("Exception:", ex);
+                    return new TransactionCreationException("An unexpected error occurred while creating the transaction.");
+                });
+    }
+
+    // The debit only succeeds while the balance covers the amount, so concurrent transfers cannot overdraw.
+    // Rows are updated in ascending id order, like ConditionalBalanceUpdateStrategy, so opposite transfers
+    // between the same users cannot deadlock; an update that matches no row fails and rolls back both
+    private Mono<Status> applyBalances(CreateTransactionDTO dto, boolean isAuthorized) {
+        if (!isAuthorized) {
+            logger.info("Transaction not authorized.");
+            return Mono.just(Status.FAILED);
+        }
+
+        logger.info("Transaction authorized.");
+        Instant now = Instant.now();
+        long amountCents = dto.getAmount().cents();
+        Mono<Void> debit = userRepository.debitIfSufficientBalance(dto.getSenderId(), amountCents, now)
+                .flatMap(updated -> updated == 0
+                        ? Mono.<Void>error(new TransactionCreationException(TransferViolation.INSUFFICIENT_BALANCE.message()))
+                        : Mono.<Void>empty());
+        Mono<Void> credit = userRepository.credit(dto.getRecipientId(), amountCents, now)
+                .flatMap(updated -> updated == 0
+                        ? Mono.<Void>error(new UserNotFoundException("User not found for id: " + dto.getRecipientId()))
+                        : Mono.<Void>empty());
+
+        Mono<Void> updates = dto.getSenderId() < dto.getRecipientId() ? debit.then(credit) : credit.then(debit);
+        return updates.thenReturn(Status.SUCCEEDED);
+    }
+
+    private Mono<Long> enqueueNotification(CreateTransactionDTO dto, UserRow sender, TransactionRow transaction) {
+        return notificationRepository.enqueue(
+                        dto.getSenderId(),
+                        transaction.id(),
+                        Channel.EMAIL.name(),
+                        sender.email(),
+                        "PAYMENT RECEIVED",
+                        sender.legalName() + " sent you R$" + dto.getAmount())
+                .doOnNext(id -> notificationMetrics.record(com.robertoljr.sops.constant.notification.Status.PENDING, Channel.EMAIL));
+    }
+
+    private Mono<Long> sendNotification(CreateTransactionDTO dto, UserRow sender, TransactionRow transaction) {
+        return notifierClient.send()
+                .map(sent -> sent ? com.robertoljr.sops.constant.notification.Status.SENT : com.robertoljr.sops.constant.notification.Status.FAILED)
+                .flatMap(status -> notificationRepository.insertSent(
+                                dto.getSenderId(),
+                                transaction.id(),
+                                Channel.EMAIL.name(),
+                                sender.email(),
+                                "PAYMENT RECEIVED",
+                                sender.legalName() + " sent you R$" + dto.getAmount(),
+                                status.name())
+                        .doOnNext(id -> notificationMetrics.record(status, Channel.EMAIL)));
+    }
+
+    private Mono<TransactionBatchItemDTO> createBatchItem(int index, CreateTransactionDTO dto) {
+        return findValidSender(dto)
+                .flatMap(sender -> authorizerClient.authorize()
+                        .flatMap(isAuthorized -> transfer(dto, sender, isAuthorized)))
+                .map(transaction -> new TransactionBatchItemDTO(
+                        index,
+                        transaction.status() == Status.SUCCEEDED ? BatchItemStatus.SUCCEEDED : BatchItemStatus.FAILED,
+                        transactionMapper.toResponseDTO(transaction),
+                        null))
+                .onErrorResume(ex -> Mono.just(new TransactionBatchItemDTO(index, BatchItemStatus.REJECTED, null, ex.getMessage())));
+    }
+
+    private Mono<TransactionRow> getTransactionOrError(Long transactionId) {
+        return transactionRepository.findById(transactionId)
+                .switchIfEmpty(Mono.error(() -> notFound(transactionId)));
+    }
+
+    private TransactionNotFoundException notFound(Long transactionId) {
+        logger.error("Transaction not found for id: {}", transactionId);
+        return new TransactionNotFoundException("Transaction not found for id: " + transactionId);
+    }
+
+    private Mono<CursorPageDTO<ResponseTransactionDTO>> toPage(Flux<TransactionRow> rows, int size) {
+        return rows.collectList()
+                .map(list -> PageCursor.toPage(list, size, row -> new PageCursor(row.createdAt(), row.id()), transactionMapper::toResponseDTO));
+    }
+
+    // Page size plus one, see PageCursor.limitFor
+    private static int limitFor(int size) {
+        return PageCursor.pageSize(size) + 1;
+    }
+}
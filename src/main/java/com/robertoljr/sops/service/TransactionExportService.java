@@ -0,0 +1,12 @@
+package com.robertoljr.sops.service;
+
+import com.robertoljr.sops.constant.transaction.ExportFormat;
+import com.robertoljr.sops.dto.transaction.TransactionExportFilterDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TransactionExportService {
+
+    long exportTransactions(TransactionExportFilterDTO filter, ExportFormat format, OutputStream out) throws IOException;
+}
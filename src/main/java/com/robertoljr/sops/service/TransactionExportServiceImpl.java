@@ -0,0 +1,105 @@
+package com.robertoljr.sops.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.robertoljr.sops.constant.transaction.ExportFormat;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.dto.transaction.TransactionExportFilterDTO;
+import com.robertoljr.sops.entity.Transaction;
+import com.robertoljr.sops.mapper.TransactionMapper;
+import com.robertoljr.sops.repository.TransactionRepository;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Observed(name = "sops.service")
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    // Shared with ReactiveTransactionServiceImpl, so both stacks export the same columns
+    static final String CSV_HEADER = "id,sender_id,recipient_id,amount,status,description,created_at,updated_at";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private final Logger logger = LoggerFactory.getLogger(TransactionExportServiceImpl.class);
+
+    @Autowired
+    public TransactionExportServiceImpl(TransactionRepository transactionRepository,
+                                        TransactionMapper transactionMapper,
+                                        EntityManager entityManager,
+                                        ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.transactionMapper = transactionMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    // The stream is backed by a server-side cursor, so it must be consumed inside this transaction
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTransactions(TransactionExportFilterDTO filter, ExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting transactions as {} with filter {}", format, filter);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long exported = 0;
+        try (Stream<Transaction> transactions = transactionRepository.streamForExport(
+                filter.senderId(), filter.recipientId(), filter.status(), filter.start(), filter.end())) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                ResponseTransactionDTO dto = transactionMapper.toResponseDTO(iterator.next());
+                writer.write(format == ExportFormat.CSV ? toCsv(dto) : objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+
+                // Keep the persistence context from growing with the result set
+                if (++exported % TransactionRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+
+        logger.info("Exported {} transactions", exported);
+        return exported;
+    }
+
+    static String toCsv(ResponseTransactionDTO dto) {
+        return dto.id() + "," +
+                dto.senderId() + "," +
+                dto.recipientId() + "," +
+                dto.amount() + "," +
+                dto.status() + "," +
+                escapeCsv(dto.description()) + "," +
+                dto.createdAt() + "," +
+                dto.updatedAt();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,28 +1,35 @@
 package com.robertoljr.sops.service;
 
 import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.dto.CursorPageDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionBatchDTO;
 import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionBatchDTO;
 import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
 import com.robertoljr.sops.dto.transaction.UpdateStatusDTO;
 
 import java.time.Instant;
-import java.util.List;
 
 public interface TransactionService {
 
     ResponseTransactionDTO createTransaction(CreateTransactionDTO dto);
 
-    List<ResponseTransactionDTO> findAllTransactions();
+    // A non-null idempotencyKey makes retries of the same request return the first result
+    ResponseTransactionDTO createTransaction(CreateTransactionDTO dto, String idempotencyKey);
+
+    ResponseTransactionBatchDTO createTransactions(CreateTransactionBatchDTO dto);
+
+    CursorPageDTO<ResponseTransactionDTO> findAllTransactions(String cursor, int size);
 
     ResponseTransactionDTO findTransactionById(Long id);
 
-    List<ResponseTransactionDTO> findTransactionsBySenderId(Long senderId);
+    CursorPageDTO<ResponseTransactionDTO> findTransactionsBySenderId(Long senderId, String cursor, int size);
 
-    List<ResponseTransactionDTO> findTransactionsByRecipientId(Long recipientId);
+    CursorPageDTO<ResponseTransactionDTO> findTransactionsByRecipientId(Long recipientId, String cursor, int size);
 
-    List<ResponseTransactionDTO> findTransactionsByStatus(Status status);
+    CursorPageDTO<ResponseTransactionDTO> findTransactionsByStatus(Status status, String cursor, int size);
 
-    List<ResponseTransactionDTO> findTransactionsByCreatedAtBetween(Instant start, Instant end);
+    CursorPageDTO<ResponseTransactionDTO> findTransactionsByCreatedAtBetween(Instant start, Instant end, String cursor, int size);
 
     ResponseTransactionDTO updateStatus(Long id, UpdateStatusDTO status);
 
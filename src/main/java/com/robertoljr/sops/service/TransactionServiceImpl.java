@@ -1,41 +1,78 @@
 package com.robertoljr.sops.service;
 
+import com.robertoljr.sops.client.AuthorizerClient;
 import com.robertoljr.sops.constant.notification.Channel;
+import com.robertoljr.sops.constant.transaction.BatchItemStatus;
 import com.robertoljr.sops.constant.transaction.Status;
-import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.constant.transaction.TransferExecutionMode;
+import com.robertoljr.sops.constant.transaction.TransferStage;
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.notification.NotificationCreateDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionBatchDTO;
 import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionBatchDTO;
 import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.dto.transaction.TransactionBatchItemDTO;
 import com.robertoljr.sops.dto.transaction.UpdateStatusDTO;
-import com.robertoljr.sops.dto.user.UserResponseDTO;
 import com.robertoljr.sops.entity.Transaction;
 import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
 import com.robertoljr.sops.exception.transaction.TransactionCreationException;
 import com.robertoljr.sops.exception.transaction.TransactionNotAllowedException;
 import com.robertoljr.sops.exception.transaction.TransactionNotFoundException;
 import com.robertoljr.sops.exception.transaction.TransactionUpdateStatusException;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
 import com.robertoljr.sops.mapper.TransactionMapper;
 import com.robertoljr.sops.mapper.UserMapper;
+import com.robertoljr.sops.metrics.TransferMetrics;
+import com.robertoljr.sops.money.Money;
 import com.robertoljr.sops.repository.TransactionRepository;
 import com.robertoljr.sops.repository.UserRepository;
+import com.robertoljr.sops.repository.projection.TransferPartyView;
+import com.robertoljr.sops.service.balance.BalanceUpdateStrategy;
+import com.robertoljr.sops.service.idempotency.IdempotencyKeyStore;
+import com.robertoljr.sops.service.ledger.LedgerEngine;
+import com.robertoljr.sops.service.ledger.LedgerReceipt;
+import com.robertoljr.sops.service.pagination.PageCursor;
+import com.robertoljr.sops.service.validation.TransferViolation;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "sops.service")
 public class TransactionServiceImpl implements TransactionService {
 
     private final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
@@ -43,90 +80,125 @@ public class TransactionServiceImpl implements TransactionService {
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
     private final TransactionMapper transactionMapper;
-    private final UserService userService;
     private final NotificationService notificationService;
-    private final RestTemplate restTemplate;
+    private final AuthorizerClient authorizerClient;
     private final UserMapper userMapper;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final TransferExecutionMode transferExecutionMode;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<LedgerEngine> ledgerEngineProvider;
+    private final int batchChunkSize;
+    private final boolean recordPendingTransactions;
+    private final TransferMetrics transferMetrics;
+    private final long prevalidationTimeoutNanos;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    // Runs the user lookup and the authorizer call side by side; carries the trace context along
+    private final ExecutorService prevalidationExecutor = ContextExecutorService.wrap(
+            Executors.newVirtualThreadPerTaskExecutor(), ContextSnapshotFactory.builder().build()::captureAll);
 
     @Autowired
     public TransactionServiceImpl(
             UserRepository userRepository,
             TransactionRepository transactionRepository,
             TransactionMapper transactionMapper,
-            UserService userService,
             NotificationService notificationService,
-            RestTemplate restTemplate,
-            UserMapper userMapper) {
+            AuthorizerClient authorizerClient,
+            UserMapper userMapper,
+            BalanceUpdateStrategy balanceUpdateStrategy,
+            @Value("${sops.transaction.execution-mode:JPA}") TransferExecutionMode transferExecutionMode,
+            TransactionTemplate transactionTemplate,
+            ObjectProvider<LedgerEngine> ledgerEngineProvider,
+            @Value("${sops.transaction.batch-chunk-size:500}") int batchChunkSize,
+            @Value("${sops.transaction.record-pending:false}") boolean recordPendingTransactions,
+            TransferMetrics transferMetrics,
+            @Value("${sops.transaction.prevalidation-timeout-ms:3000}") long prevalidationTimeoutMs,
+            IdempotencyKeyStore idempotencyKeyStore) {
         this.userRepository = userRepository;
         this.transactionRepository = transactionRepository;
         this.transactionMapper = transactionMapper;
-        this.userService = userService;
         this.notificationService = notificationService;
-        this.restTemplate = restTemplate;
+        this.authorizerClient = authorizerClient;
         this.userMapper = userMapper;
+        this.balanceUpdateStrategy = balanceUpdateStrategy;
+        this.transferExecutionMode = transferExecutionMode;
+        this.transactionTemplate = transactionTemplate;
+        this.ledgerEngineProvider = ledgerEngineProvider;
+        this.batchChunkSize = batchChunkSize;
+        this.recordPendingTransactions = recordPendingTransactions;
+        this.transferMetrics = transferMetrics;
+        this.prevalidationTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(prevalidationTimeoutMs);
+        this.idempotencyKeyStore = idempotencyKeyStore;
+    }
+
+    @PreDestroy
+    void stop() {
+        prevalidationExecutor.shutdownNow();
     }
 
     @Override
-    @Transactional
     public ResponseTransactionDTO createTransaction(CreateTransactionDTO dto) {
         logger.info("Creating transaction with sender id: {}", dto.getSenderId());
         logger.info("Creating transaction with recipient id: {}", dto.getRecipientId());
 
-        // Validate the transaction
-        if (!isTransactionValid(dto)) {
-            logger.error("Invalid transaction.");
-        }
-
-        // Get the sender and recipient users
-        Optional<User> sender = userRepository.findById(dto.getSenderId());
-        Optional<User> recipient = userRepository.findById(dto.getRecipientId());
-
-        // Authorize the transaction
+        TransferMetrics.InFlightTransfer transfer = transferMetrics.startTransfer(dto);
+        String outcome = "REJECTED";
+        Long transactionId = null;
         try {
-            Transaction transaction = transactionMapper.toEntity(dto);
-
-            if (isTransactionAuthorized(dto)) {
-                logger.info("Transaction authorized.");
-                transaction.setStatus(Status.SUCCEEDED);
-
-                // Update balances for both users
-                sender.ifPresent(user -> user.setBalance(user.getBalance().subtract(dto.getAmount())));
-                recipient.ifPresent(user -> user.setBalance(user.getBalance().add(dto.getAmount())));
-            } else {
-                logger.info("Transaction not authorized.");
-                transaction.setStatus(Status.FAILED);
-            }
-
-            transaction = transactionRepository.save(transaction);
+            ResponseTransactionDTO transaction = switch (transferExecutionMode) {
+                case JPA -> createTransactionWithJpa(dto);
+                case DATABASE_FUNCTION -> createTransactionInDatabase(dto);
+                case LEDGER -> createTransactionInLedger(dto);
+            };
+            outcome = transaction.status().name();
+            transactionId = transaction.id();
+            transferMetrics.recordTransaction(transaction.status());
+            return transaction;
+        } finally {
+            transferMetrics.stopTransfer(transfer, transferExecutionMode, outcome, transactionId);
+        }
+    }
 
-            // Create a default notification for the recipient
-            notificationService.createNotification(new NotificationCreateDTO(
-                    dto.getSenderId(),
-                    transaction.getId(),
-                    Channel.EMAIL,
-                    sender.map(User::getEmail).orElse(null),
-                    "PAYMENT RECEIVED",
-                    sender.get().getLegalName() + " sent you R$" + dto.getAmount()
-            ));
+    @Override
+    public ResponseTransactionDTO createTransaction(CreateTransactionDTO dto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createTransaction(dto);
+        }
+        return idempotencyKeyStore.execute(idempotencyKey, dto, () -> createTransaction(dto));
+    }
 
-            return transactionMapper.toResponseDTO(transaction);
-        } catch (DataIntegrityViolationException ex) {
-            logger.error("Data integrity violation exception:", ex);
-            throw new TransactionCreationException("An unexpected error occurred while creating the transaction.");
-        } catch (Exception ex) {
-            logger.error("Exception:", ex);
-            throw new TransactionCreationException("An unexpected error occurred while creating the transaction.");
+    @Override
+    public ResponseTransactionBatchDTO createTransactions(CreateTransactionBatchDTO dto) {
+        List<CreateTransactionDTO> items = dto.getTransactions();
+        logger.info("Creating batch of {} transactions in chunks of {}", items.size(), batchChunkSize);
+
+        List<TransactionBatchItemDTO> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += batchChunkSize) {
+            int to = Math.min(from + batchChunkSize, items.size());
+            results.addAll(createTransactionChunk(items.subList(from, to), from));
         }
+
+        results.stream()
+                .filter(result -> result.transaction() != null)
+                .forEach(result -> transferMetrics.recordTransaction(result.transaction().status()));
+
+        Map<BatchItemStatus, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(TransactionBatchItemDTO::status, Collectors.counting()));
+        return new ResponseTransactionBatchDTO(
+                items.size(),
+                counts.getOrDefault(BatchItemStatus.SUCCEEDED, 0L).intValue(),
+                counts.getOrDefault(BatchItemStatus.FAILED, 0L).intValue(),
+                counts.getOrDefault(BatchItemStatus.REJECTED, 0L).intValue(),
+                results
+        );
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ResponseTransactionDTO> findAllTransactions() {
+    public CursorPageDTO<ResponseTransactionDTO> findAllTransactions(String cursor, int size) {
         logger.info("Retrieving all transactions");
 
-        return transactionRepository.findAll().stream()
-                .map(transactionMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(transactionRepository.findPage(after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
@@ -140,42 +212,38 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ResponseTransactionDTO> findTransactionsBySenderId(Long senderId) {
+    public CursorPageDTO<ResponseTransactionDTO> findTransactionsBySenderId(Long senderId, String cursor, int size) {
         logger.info("Retrieving transactions by sender id {}", senderId);
 
-        return transactionRepository.findBySenderId(senderId).stream()
-                .map(transactionMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(transactionRepository.findPageBySenderId(senderId, after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ResponseTransactionDTO> findTransactionsByRecipientId(Long recipientId) {
+    public CursorPageDTO<ResponseTransactionDTO> findTransactionsByRecipientId(Long recipientId, String cursor, int size) {
         logger.info("Retrieving transactions by recipient id {}", recipientId);
 
-        return transactionRepository.findByRecipientId(recipientId).stream()
-                .map(transactionMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(transactionRepository.findPageByRecipientId(recipientId, after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ResponseTransactionDTO> findTransactionsByStatus(Status status) {
+    public CursorPageDTO<ResponseTransactionDTO> findTransactionsByStatus(Status status, String cursor, int size) {
         logger.info("Retrieving transactions by status {}", status);
 
-        return transactionRepository.findByStatus(status).stream()
-                .map(transactionMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(transactionRepository.findPageByStatus(status, after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ResponseTransactionDTO> findTransactionsByCreatedAtBetween(Instant start, Instant end) {
+    public CursorPageDTO<ResponseTransactionDTO> findTransactionsByCreatedAtBetween(Instant start, Instant end, String cursor, int size) {
         logger.info("Retrieving transactions by createdAt between {} and {}", start, end);
 
-        return transactionRepository.findByCreatedAtBetween(start, end).stream()
-                .map(transactionMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(transactionRepository.findPageByCreatedAtBetween(start, end, after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
@@ -209,6 +277,382 @@ public class TransactionServiceImpl implements TransactionService {
         logger.info("Deleted transaction with id {}", id);
     }
 
+    private CursorPageDTO<ResponseTransactionDTO> toPage(List<Transaction> rows, int size) {
+        return PageCursor.toPage(rows, size, row -> new PageCursor(row.getCreatedAt(), row.getId()), transactionMapper::toResponseDTO);
+    }
+
+    // Stage 1 validates and authorizes without an open database transaction; stage 2 is a short
+    // transaction that re-checks the balance while applying it
+    private ResponseTransactionDTO createTransactionWithJpa(CreateTransactionDTO dto) {
+        // Validation and authorization run concurrently unless a PENDING row has to be written between them
+        if (!recordPendingTransactions) {
+            boolean isAuthorized = validateAndAuthorize(dto);
+            return transactionTemplate.execute(status -> applyTransaction(dto, isAuthorized, null));
+        }
+
+        // Validate the transaction
+        if (!transferMetrics.time(TransferStage.VALIDATION, dto, () -> isTransactionValid(dto))) {
+            logger.error("Invalid transaction.");
+        }
+
+        // Record the attempt before calling the authorizer
+        Long pendingTransactionId = transactionTemplate.execute(status -> savePendingTransaction(dto));
+
+        try {
+            // Authorize the transaction
+            boolean isAuthorized = transferMetrics.time(TransferStage.AUTHORIZATION, dto, () -> isTransactionAuthorized(dto));
+            return transactionTemplate.execute(status -> applyTransaction(dto, isAuthorized, pendingTransactionId));
+        } catch (RuntimeException ex) {
+            if (pendingTransactionId != null) {
+                transactionTemplate.executeWithoutResult(status -> markTransactionFailed(pendingTransactionId));
+            }
+            throw ex;
+        }
+    }
+
+    private Long savePendingTransaction(CreateTransactionDTO dto) {
+        Transaction transaction = transactionMapper.toEntity(dto);
+        transaction.setStatus(Status.PENDING);
+        return transactionRepository.save(transaction).getId();
+    }
+
+    private void markTransactionFailed(Long transactionId) {
+        transactionRepository.findById(transactionId)
+                .ifPresent(transaction -> transaction.setStatus(Status.FAILED));
+    }
+
+    private ResponseTransactionDTO applyTransaction(CreateTransactionDTO dto, boolean isAuthorized, Long pendingTransactionId) {
+        transferMetrics.timeCommit(dto);
+
+        // Get the sender user
+        Optional<User> sender = userRepository.findById(dto.getSenderId());
+
+        try {
+            Transaction transaction = pendingTransactionId != null
+                    ? getTransactionOrThrow(pendingTransactionId)
+                    : transactionMapper.toEntity(dto);
+
+            if (isAuthorized) {
+                logger.info("Transaction authorized.");
+                transaction.setStatus(Status.SUCCEEDED);
+
+                // Update balances for both users, re-checking the sender's balance
+                transferMetrics.time(TransferStage.BALANCE_UPDATE, dto,
+                        () -> balanceUpdateStrategy.transfer(dto.getSenderId(), dto.getRecipientId(), dto.getAmount()));
+            } else {
+                logger.info("Transaction not authorized.");
+                transaction.setStatus(Status.FAILED);
+            }
+
+            Transaction saved = transferMetrics.time(TransferStage.INSERT, dto, () -> transactionRepository.save(transaction));
+
+            // Create a default notification for the recipient
+            transferMetrics.time(TransferStage.NOTIFICATION, dto, () -> notificationService.enqueueNotification(new NotificationCreateDTO(
+                    dto.getSenderId(),
+                    saved.getId(),
+                    Channel.EMAIL,
+                    sender.map(User::getEmail).orElse(null),
+                    "PAYMENT RECEIVED",
+                    sender.get().getLegalName() + " sent you R$" + dto.getAmount()
+            )));
+
+            return transactionMapper.toResponseDTO(saved);
+        } catch (TransactionCreationException | TransactionConflictException | UserNotFoundException ex) {
+            logger.error("Transaction rejected: {}", ex.getMessage());
+            throw ex;
+        } catch (DataIntegrityViolationException ex) {
+            logger.error("Data integrity violation exception:", ex);
+            throw new TransactionCreationException("An unexpected error occurred while creating the transaction.");
+        } catch (Exception ex) {
+            logger.error("Exception:", ex);
+            throw new TransactionCreationException("An unexpected error occurred while creating the transaction.");
+        }
+    }
+
+    // Every item gets its own authorizer decision, requested concurrently; balances then move through
+    // the ledger in LEDGER mode, or through the configured BalanceUpdateStrategy in one database
+    // transaction per chunk
+    private List<TransactionBatchItemDTO> createTransactionChunk(List<CreateTransactionDTO> chunk, int offset) {
+        TransactionBatchItemDTO[] results = new TransactionBatchItemDTO[chunk.size()];
+        boolean[] authorizations = authorizeBatchItems(chunk, offset, results);
+
+        if (transferExecutionMode == TransferExecutionMode.LEDGER) {
+            createTransactionChunkInLedger(chunk, offset, authorizations, results);
+            return Arrays.asList(results);
+        }
+
+        try {
+            return Arrays.asList(transactionTemplate.execute(status -> applyTransactionChunk(chunk, offset, authorizations, results)));
+        } catch (RuntimeException ex) {
+            // The chunk was rolled back as a whole; each item now gets its own transaction and outcome
+            logger.error("Failed to create transactions {} to {}, retrying them one by one:", offset, offset + chunk.size() - 1, ex);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (results[i] == null) {
+                    results[i] = createBatchItem(chunk.get(i), offset + i, authorizations[i]);
+                }
+            }
+            return Arrays.asList(results);
+        }
+    }
+
+    // Items the authorizer could not decide are rejected in results with the reason
+    private boolean[] authorizeBatchItems(List<CreateTransactionDTO> chunk, int offset, TransactionBatchItemDTO[] results) {
+        List<Future<Boolean>> decisions = chunk.stream()
+                .map(dto -> prevalidationExecutor.submit(() -> isTransactionAuthorized(dto)))
+                .toList();
+
+        boolean[] authorizations = new boolean[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                authorizations[i] = decisions.get(i).get();
+            } catch (ExecutionException ex) {
+                results[i] = rejectedBatchItem(offset + i, ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while authorizing the batch", ex);
+            }
+        }
+        return authorizations;
+    }
+
+    private TransactionBatchItemDTO[] applyTransactionChunk(List<CreateTransactionDTO> chunk, int offset, boolean[] authorizations,
+                                                            TransactionBatchItemDTO[] rejections) {
+        TransactionBatchItemDTO[] results = rejections.clone();
+
+        // Lock every user touched by the chunk with a single statement, so the checks below hold until commit
+        Set<Long> userIds = new TreeSet<>();
+        chunk.forEach(dto -> {
+            userIds.add(dto.getSenderId());
+            userIds.add(dto.getRecipientId());
+        });
+        Map<Long, User> users = userRepository.findAllByIdForUpdate(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // Running balances of the chunk; the balances themselves are only written by the strategy
+        Map<Long, Money> balances = users.values().stream()
+                .collect(Collectors.toMap(User::getId, User::getBalance));
+
+        List<Integer> acceptedIndexes = new ArrayList<>(chunk.size());
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            CreateTransactionDTO dto = chunk.get(i);
+            User sender = users.get(dto.getSenderId());
+            User recipient = users.get(dto.getRecipientId());
+
+            String rejection = validateBatchItem(dto, sender, recipient, balances.get(dto.getSenderId()));
+            if (rejection != null) {
+                results[i] = new TransactionBatchItemDTO(offset + i, BatchItemStatus.REJECTED, null, rejection);
+                continue;
+            }
+
+            Transaction transaction = transactionMapper.toEntity(dto);
+            transaction.setSender(sender);
+            transaction.setRecipient(recipient);
+            if (authorizations[i]) {
+                transaction.setStatus(Status.SUCCEEDED);
+                balanceUpdateStrategy.transfer(dto.getSenderId(), dto.getRecipientId(), dto.getAmount());
+                balances.computeIfPresent(dto.getSenderId(), (id, balance) -> balance.minus(dto.getAmount()));
+                balances.computeIfPresent(dto.getRecipientId(), (id, balance) -> balance.plus(dto.getAmount()));
+            } else {
+                transaction.setStatus(Status.FAILED);
+            }
+            acceptedIndexes.add(i);
+            transactions.add(transaction);
+        }
+
+        transactions = transactionRepository.saveAll(transactions);
+
+        List<NotificationCreateDTO> notifications = new ArrayList<>(transactions.size());
+        for (int j = 0; j < transactions.size(); j++) {
+            Transaction transaction = transactions.get(j);
+            int i = acceptedIndexes.get(j);
+            results[i] = batchItem(offset + i, transactionMapper.toResponseDTO(transaction));
+            notifications.add(new NotificationCreateDTO(
+                    transaction.getSender().getId(),
+                    transaction.getId(),
+                    Channel.EMAIL,
+                    transaction.getSender().getEmail(),
+                    "PAYMENT RECEIVED",
+                    transaction.getSender().getLegalName() + " sent you R$" + transaction.getAmount()
+            ));
+        }
+        if (!notifications.isEmpty()) {
+            notificationService.enqueueNotifications(notifications);
+        }
+
+        return results;
+    }
+
+    // Same path as a single transfer, used once a chunk could not be applied as a whole
+    private TransactionBatchItemDTO createBatchItem(CreateTransactionDTO dto, int index, boolean isAuthorized) {
+        try {
+            isTransactionValid(dto);
+            return batchItem(index, transactionTemplate.execute(status -> applyTransaction(dto, isAuthorized, null)));
+        } catch (RuntimeException ex) {
+            return rejectedBatchItem(index, ex);
+        }
+    }
+
+    // Submitted in batch order, so items of the same sender are decided in that order
+    private void createTransactionChunkInLedger(List<CreateTransactionDTO> chunk, int offset, boolean[] authorizations,
+                                                TransactionBatchItemDTO[] results) {
+        LedgerEngine ledgerEngine = getLedgerEngine();
+        List<CompletableFuture<LedgerReceipt>> receipts = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateTransactionDTO dto = chunk.get(i);
+            receipts.add(results[i] != null ? null : ledgerEngine.transfer(dto.getSenderId(), dto.getRecipientId(),
+                    dto.getAmount(), dto.getDescription(), authorizations[i]));
+        }
+
+        List<NotificationCreateDTO> notifications = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (receipts.get(i) == null) {
+                continue;
+            }
+            try {
+                LedgerReceipt receipt = receipts.get(i).join();
+                results[i] = batchItem(offset + i, transactionMapper.toResponseDTO(receipt.transaction()));
+                notifications.add(toNotification(chunk.get(i), receipt));
+            } catch (CompletionException ex) {
+                results[i] = rejectedBatchItem(offset + i, ex.getCause());
+            }
+        }
+        if (!notifications.isEmpty()) {
+            notificationService.enqueueNotifications(notifications);
+        }
+    }
+
+    private TransactionBatchItemDTO batchItem(int index, ResponseTransactionDTO transaction) {
+        BatchItemStatus status = transaction.status() == Status.SUCCEEDED ? BatchItemStatus.SUCCEEDED : BatchItemStatus.FAILED;
+        return new TransactionBatchItemDTO(index, status, transaction, null);
+    }
+
+    // The messages of the business exceptions are meant for the client; anything else is not
+    private TransactionBatchItemDTO rejectedBatchItem(int index, Throwable cause) {
+        if (cause instanceof TransactionCreationException
+                || cause instanceof TransactionNotAllowedException
+                || cause instanceof TransactionConflictException
+                || cause instanceof UserNotFoundException) {
+            logger.error("Transaction {} of the batch rejected: {}", index, cause.getMessage());
+            return new TransactionBatchItemDTO(index, BatchItemStatus.REJECTED, null, cause.getMessage());
+        }
+        logger.error("Transaction {} of the batch failed:", index, cause);
+        return new TransactionBatchItemDTO(index, BatchItemStatus.REJECTED, null,
+                "An unexpected error occurred while creating the transaction.");
+    }
+
+    // Same rules as isTransactionValid, checked against the locked rows and the chunk's running balance
+    private String validateBatchItem(CreateTransactionDTO dto, User sender, User recipient, Money senderBalance) {
+        if (sender == null) {
+            return "User not found for id: " + dto.getSenderId();
+        }
+        if (recipient == null) {
+            return "User not found for id: " + dto.getRecipientId();
+        }
+        TransferViolation violation = TransferViolation.check(
+                sender.getUserType(), sender.getId(), recipient.getId(), senderBalance, dto.getAmount());
+        return violation == null ? null : violation.message();
+    }
+
+    // Both balance updates and both inserts run inside perform_transfer in a single round trip, which
+    // re-checks under its row locks what the validation read without them
+    private ResponseTransactionDTO createTransactionInDatabase(CreateTransactionDTO dto) {
+        // Validated first, as in the JPA path, so a rejected transfer never reaches the external services
+        transferMetrics.time(TransferStage.VALIDATION, dto, () -> isTransactionValid(dto));
+        boolean isAuthorized = transferMetrics.time(TransferStage.AUTHORIZATION, dto, () -> isTransactionAuthorized(dto));
+        // NULL lets perform_transfer enqueue the notification in the outbox; FALSE records it as not sent yet
+        boolean isOutboxEnabled = notificationService.isOutboxEnabled();
+        Boolean isNotificationSent = isOutboxEnabled ? null : Boolean.FALSE;
+
+        try {
+            Transaction transaction = transferMetrics.time(TransferStage.PERFORM_TRANSFER, dto,
+                    () -> transactionTemplate.execute(status -> transactionRepository.performTransfer(
+                            dto.getSenderId(),
+                            dto.getRecipientId(),
+                            dto.getAmount().toBigDecimal(),
+                            dto.getDescription(),
+                            isAuthorized,
+                            isNotificationSent
+                    )));
+            logger.info("Transaction {} executed in database with status {}", transaction.getId(), transaction.getStatus());
+
+            // Without the outbox the notifier is only called once the transfer has committed
+            if (!isOutboxEnabled) {
+                transferMetrics.time(TransferStage.NOTIFICATION, dto, () -> notificationService.sendTransactionNotification(transaction.getId()));
+            }
+            return transactionMapper.toResponseDTO(transaction);
+        } catch (DataAccessException ex) {
+            throw translateTransferException(ex);
+        }
+    }
+
+    // Balances are decided by the in-memory ledger; no database connection is held while waiting
+    private ResponseTransactionDTO createTransactionInLedger(CreateTransactionDTO dto) {
+        LedgerEngine ledgerEngine = getLedgerEngine();
+        // Validated against the database first, so a rejected transfer never reaches the authorizer. The
+        // ledger only spends persisted credits, so users.balance never understates what it will accept
+        transferMetrics.time(TransferStage.VALIDATION, dto, () -> isTransactionValid(dto));
+        boolean isAuthorized = transferMetrics.time(TransferStage.AUTHORIZATION, dto, () -> isTransactionAuthorized(dto));
+        LedgerReceipt receipt;
+        try {
+            receipt = transferMetrics.time(TransferStage.LEDGER, dto, () -> ledgerEngine.transfer(dto.getSenderId(),
+                    dto.getRecipientId(), dto.getAmount(), dto.getDescription(), isAuthorized).join());
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+
+        transferMetrics.time(TransferStage.NOTIFICATION, dto, () -> notificationService.enqueueNotification(toNotification(dto, receipt)));
+
+        return transactionMapper.toResponseDTO(receipt.transaction());
+    }
+
+    private LedgerEngine getLedgerEngine() {
+        LedgerEngine ledgerEngine = ledgerEngineProvider.getIfAvailable();
+        if (ledgerEngine == null) {
+            throw new IllegalStateException("Ledger execution mode selected but no LedgerEngine is configured.");
+        }
+        return ledgerEngine;
+    }
+
+    private NotificationCreateDTO toNotification(CreateTransactionDTO dto, LedgerReceipt receipt) {
+        return new NotificationCreateDTO(
+                dto.getSenderId(),
+                receipt.transaction().getId(),
+                Channel.EMAIL,
+                receipt.senderEmail(),
+                "PAYMENT RECEIVED",
+                receipt.senderLegalName() + " sent you R$" + dto.getAmount()
+        );
+    }
+
+    private RuntimeException translateTransferException(DataAccessException ex) {
+        Throwable cause = ex;
+        while (cause != null && !(cause instanceof SQLException)) {
+            cause = cause.getCause();
+        }
+
+        String sqlState = cause != null ? ((SQLException) cause).getSQLState() : null;
+        String message = cause != null ? cause.getMessage() : ex.getMessage();
+        logger.error("Transfer rejected by database ({}): {}", sqlState, message);
+
+        if (sqlState == null) {
+            return new TransactionCreationException("An unexpected error occurred while creating the transaction.");
+        }
+        return switch (sqlState) {
+            case "SOP01" -> new UserNotFoundException("User not found.");
+            case "SOP02" -> new TransactionNotAllowedException("Sender is a MERCHANT -- not allowed to make transfers.");
+            case "SOP03" -> new TransactionCreationException("Sender and recipient ids are the same.");
+            case "SOP04" -> new TransactionCreationException("Sender does not have enough balance to make the transfer.");
+            default -> new TransactionCreationException("An unexpected error occurred while creating the transaction.");
+        };
+    }
+
     private Transaction getTransactionOrThrow(Long transactionId) {
         return transactionRepository.findById(transactionId)
                 .orElseThrow(() -> {
@@ -217,26 +661,62 @@ public class TransactionServiceImpl implements TransactionService {
                 });
     }
 
+    // The user lookup and the authorizer call run at the same time under one deadline, so this phase
+    // takes as long as the slower of the two. As with StructuredTaskScope.ShutdownOnFailure, the
+    // first failure, business rejections included, interrupts the other task and is rethrown as is.
+    private boolean validateAndAuthorize(CreateTransactionDTO dto) {
+        long deadline = System.nanoTime() + prevalidationTimeoutNanos;
+        CompletionService<Boolean> scope = new ExecutorCompletionService<>(prevalidationExecutor);
+        Future<Boolean> validation = scope.submit(
+                () -> transferMetrics.time(TransferStage.VALIDATION, dto, () -> isTransactionValid(dto)));
+        Future<Boolean> authorization = scope.submit(
+                () -> transferMetrics.time(TransferStage.AUTHORIZATION, dto, () -> isTransactionAuthorized(dto)));
+
+        try {
+            for (int completed = 0; completed < 2; completed++) {
+                Future<Boolean> task = scope.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (task == null) {
+                    logger.error("Transaction pre-validation did not finish within {} ms", TimeUnit.NANOSECONDS.toMillis(prevalidationTimeoutNanos));
+                    throw new TransactionCreationException("The transaction could not be validated in time. Please try again later.");
+                }
+                task.get();
+            }
+            return authorization.resultNow();
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating the transaction", ex);
+        } finally {
+            validation.cancel(true);
+            authorization.cancel(true);
+        }
+    }
+
     private boolean isTransactionValid(CreateTransactionDTO dto) {
         logger.info("Validating transaction with sender id: {}", dto.getSenderId());
 
-        // Check if the sender and recipient ids are valid
-        UserResponseDTO dbSenderUser = userService.findUserById(dto.getSenderId());
-        UserResponseDTO dbRecipientUser = userService.findUserById(dto.getRecipientId());
-
-        // Check if the sender is MERCHANT -- not allowed to make transfers
-        if (dbSenderUser.userType().equals(UserType.MERCHANT)) {
-            throw new TransactionNotAllowedException("Sender is a MERCHANT -- not allowed to make transfers.");
+        // Both users in one query; only the sender's type and balance are needed
+        Map<Long, TransferPartyView> users = userRepository.findTransferPartiesByIdIn(List.of(dto.getSenderId(), dto.getRecipientId()))
+                .stream()
+                .collect(Collectors.toMap(TransferPartyView::getId, Function.identity()));
+        for (Long userId : List.of(dto.getSenderId(), dto.getRecipientId())) {
+            if (!users.containsKey(userId)) {
+                logger.error("User not found for id: {}", userId);
+                throw new UserNotFoundException("User not found for id: " + userId);
+            }
         }
 
-        // Check if the sender and recipient ids are the same
-        if (dbSenderUser.id().equals(dbRecipientUser.id())) {
-            throw new TransactionCreationException("Sender and recipient ids are the same.");
-        }
+        TransferPartyView sender = users.get(dto.getSenderId());
+        TransferViolation violation = TransferViolation.check(
+                sender.getUserType(), sender.getId(), dto.getRecipientId(), sender.getBalance(), dto.getAmount());
 
-        // Check if the sender has enough balance to make the transfer
-        if (dbSenderUser.balance().compareTo(dto.getAmount()) < 0) {
-            throw new TransactionCreationException("Sender does not have enough balance to make the transfer.");
+        // MERCHANT senders are rejected as not allowed; every other violation fails the creation
+        if (violation == TransferViolation.MERCHANT_SENDER) {
+            throw new TransactionNotAllowedException(violation.message());
+        }
+        if (violation != null) {
+            throw new TransactionCreationException(violation.message());
         }
 
         return true;
@@ -245,19 +725,6 @@ public class TransactionServiceImpl implements TransactionService {
     private boolean isTransactionAuthorized(CreateTransactionDTO dto) {
         logger.info("Authorizing transaction with sender id: {}", dto.getSenderId());
 
-        try {
-            ResponseEntity<Map> authorizationResponse = restTemplate.getForEntity("https://util.devi.tools/api/v2/authorize", Map.class);
-
-            return authorizationResponse.getStatusCode() == HttpStatus.OK;
-        } catch (HttpClientErrorException.Forbidden ex) {
-            logger.error("Forbidden exception: {}", ex.getMessage());
-            return false;
-        } catch (HttpClientErrorException | HttpServerErrorException ex) {
-            logger.error("Exception: {}", ex.getMessage());
-            throw new TransactionCreationException("An unexpected error occurred while authorizing the transaction.");
-        } catch (Exception ex) {
-            logger.error("Exception: ", ex);
-            throw new TransactionCreationException("An unexpected error occurred while authorizing the transaction.");
-        }
+        return authorizerClient.authorize();
     }
 }
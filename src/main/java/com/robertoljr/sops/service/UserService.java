@@ -1,17 +1,18 @@
 package com.robertoljr.sops.service;
 
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.user.*;
 
-import java.util.List;
-
 public interface UserService {
 
     UserResponseDTO createUser(UserCreateDTO dto);
 
-    List<UserResponseDTO> findAllUsers();
+    CursorPageDTO<UserResponseDTO> findAllUsers(String cursor, int size);
 
     UserResponseDTO findUserById(Long id);
 
+    UserResponseDTO findUserProfileById(Long id);
+
     UserResponseDTO findUserByEmail(String email);
 
     UserResponseDTO findUserByDocumentNumber(String documentNumber);
@@ -23,4 +24,6 @@ public interface UserService {
     UserResponseDTO updatePassword(Long userId, UpdatePasswordDTO dto);
 
     void deleteUser(Long id);
+
+    UserCacheStatsDTO findCacheStats();
 }
@@ -1,34 +1,50 @@
 package com.robertoljr.sops.service;
 
+import com.robertoljr.sops.dto.CursorPageDTO;
 import com.robertoljr.sops.dto.user.*;
 import com.robertoljr.sops.entity.User;
 import com.robertoljr.sops.exception.user.UserCreationException;
 import com.robertoljr.sops.exception.user.UserNotFoundException;
 import com.robertoljr.sops.exception.user.UserUpdateException;
 import com.robertoljr.sops.mapper.UserMapper;
+import com.robertoljr.sops.money.Money;
 import com.robertoljr.sops.repository.UserRepository;
+import com.robertoljr.sops.repository.projection.StripedBalanceView;
+import com.robertoljr.sops.service.cache.UserProfileCache;
+import com.robertoljr.sops.service.pagination.PageCursor;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "sops.service")
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserProfileCache userProfileCache;
+    private final boolean stripingEnabled;
 
     private final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper) {
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, UserProfileCache userProfileCache,
+                           @Value("${sops.balance-striping.enabled:false}") boolean stripingEnabled) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.userProfileCache = userProfileCache;
+        this.stripingEnabled = stripingEnabled;
     }
 
     @Override
@@ -50,20 +66,29 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserResponseDTO> findAllUsers() {
+    public CursorPageDTO<UserResponseDTO> findAllUsers(String cursor, int size) {
         logger.info("Retrieving all users");
 
-        return userRepository.findAll().stream()
-                .map(userMapper::toResponseDTO)
-                .toList();
+        PageCursor after = PageCursor.decode(cursor);
+        return toPage(userRepository.findPage(after.createdAt(), after.id(), PageCursor.limitFor(size)), size);
     }
 
     @Override
     public UserResponseDTO findUserById(Long id) {
         logger.info("Retrieving user with id {}", id);
 
+        // Always read from the database: the response carries the balance, which is never cached
         User user = getUserOrThrow(id);
-        return userMapper.toResponseDTO(user);
+        return withStripedBalance(cache(userMapper.toResponseDTO(user)));
+    }
+
+    // Balance and updatedAt are null: for checks that only need the user's identity and type
+    @Override
+    public UserResponseDTO findUserProfileById(Long id) {
+        logger.info("Retrieving user profile with id {}", id);
+
+        return userProfileCache.findById(id)
+                .orElseGet(() -> cache(userMapper.toResponseDTO(getUserOrThrow(id))));
     }
 
     @Override
@@ -72,6 +97,8 @@ public class UserServiceImpl implements UserService {
 
         Optional<User> dbUser = userRepository.findByEmail(email);
         return dbUser.map(userMapper::toResponseDTO)
+                .map(this::cache)
+                .map(this::withStripedBalance)
                 .orElseThrow(() -> {
                     logger.error("User not found for email: {}", email);
                     return new UserNotFoundException("User not found for email: " + email);
@@ -84,6 +111,8 @@ public class UserServiceImpl implements UserService {
 
         Optional<User> dbUser = userRepository.findByDocumentNumber(documentNumber);
         return dbUser.map(userMapper::toResponseDTO)
+                .map(this::cache)
+                .map(this::withStripedBalance)
                 .orElseThrow(() -> {
                     logger.error("User not found for document number: {}", documentNumber);
                     return new UserNotFoundException("User not found for document number: " + documentNumber);
@@ -112,11 +141,12 @@ public class UserServiceImpl implements UserService {
             throw new UserUpdateException("Email already in use.");
         }
 
+        userProfileCache.invalidate(userMapper.toResponseDTO(dbUser));
         dbUser.setEmail(dto.getNewEmail());
         logger.info("Updated email for user id {} to {}", userId, dto.getNewEmail().toLowerCase());
         userRepository.save(dbUser);
 
-        return userMapper.toResponseDTO(dbUser);
+        return withStripedBalance(userMapper.toResponseDTO(dbUser));
     }
 
     @Override
@@ -131,12 +161,13 @@ public class UserServiceImpl implements UserService {
             throw new UserUpdateException("New phone number is the same as the current one.");
         }
 
+        userProfileCache.invalidate(userMapper.toResponseDTO(dbUser));
         dbUser.setPhoneNumber(dto.getPhoneNumber());
 
         logger.info("Updated phoneNumber for user id {} to {}", userId, dto.getPhoneNumber());
         userRepository.save(dbUser);
 
-        return userMapper.toResponseDTO(dbUser);
+        return withStripedBalance(userMapper.toResponseDTO(dbUser));
     }
 
     @Override
@@ -146,11 +177,12 @@ public class UserServiceImpl implements UserService {
 
         User dbUser = getUserOrThrow(userId);
         assertPasswordMatches(dbUser.getPassword(), dto.getCurrentPassword());
+        userProfileCache.invalidate(userMapper.toResponseDTO(dbUser));
         dbUser.setPassword(dto.getNewPassword());
         userRepository.save(dbUser);
 
         logger.info("Updated password for user id {}", userId);
-        return userMapper.toResponseDTO(dbUser);
+        return withStripedBalance(userMapper.toResponseDTO(dbUser));
     }
 
     @Override
@@ -161,9 +193,63 @@ public class UserServiceImpl implements UserService {
         User dbUser = getUserOrThrow(id);
 
         logger.info("Deleted user with id {}", id);
+        userProfileCache.invalidate(userMapper.toResponseDTO(dbUser));
         userRepository.delete(dbUser);
     }
 
+    @Override
+    public UserCacheStatsDTO findCacheStats() {
+        return userProfileCache.stats();
+    }
+
+    private CursorPageDTO<UserResponseDTO> toPage(List<User> rows, int size) {
+        CursorPageDTO<UserResponseDTO> page = PageCursor.toPage(rows, size, row -> new PageCursor(row.getCreatedAt(), row.getId()), userMapper::toResponseDTO);
+        if (!stripingEnabled || page.items().isEmpty()) {
+            return page;
+        }
+
+        // One grouped query for the whole page instead of one per user
+        Map<Long, Money> stripedBalances = userRepository.sumStripesByUserIdIn(page.items().stream().map(UserResponseDTO::id).toList())
+                .stream()
+                .collect(Collectors.toMap(StripedBalanceView::getUserId, view -> Money.of(view.getBalance())));
+        List<UserResponseDTO> items = page.items().stream()
+                .map(user -> withBalance(user, user.balance().plus(stripedBalances.getOrDefault(user.id(), Money.ZERO)), user.updatedAt()))
+                .toList();
+        return new CursorPageDTO<>(items, page.nextCursor());
+    }
+
+    private UserResponseDTO cache(UserResponseDTO user) {
+        userProfileCache.put(user);
+        return user;
+    }
+
+    // With balance striping, credits still sitting in balance_stripes are part of the balance
+    private UserResponseDTO withStripedBalance(UserResponseDTO user) {
+        if (!stripingEnabled) {
+            return user;
+        }
+        return withBalance(user, user.balance().plus(stripedBalance(user.id())), user.updatedAt());
+    }
+
+    private Money stripedBalance(Long userId) {
+        return Money.of(userRepository.sumStripesByUserId(userId));
+    }
+
+    private UserResponseDTO withBalance(UserResponseDTO user, Money balance, Instant updatedAt) {
+        return new UserResponseDTO(
+                user.id(),
+                user.legalName(),
+                user.documentType(),
+                user.documentNumber(),
+                user.email(),
+                user.phoneNumber(),
+                balance,
+                user.userType(),
+                user.createdAt(),
+                updatedAt
+        );
+    }
+
     private User getUserOrThrow(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> {
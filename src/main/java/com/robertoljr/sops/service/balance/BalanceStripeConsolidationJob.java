@@ -0,0 +1,60 @@
+package com.robertoljr.sops.service.balance;
+
+import com.robertoljr.sops.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Folds the balance stripes written by {@link StripedBalanceUpdateStrategy} back into users.balance,
+ * so the stripe rows and the sum on read stay small.
+ * <p>
+ * Each user is consolidated in its own short transaction that updates a single users row, and
+ * stripes locked by in-flight credits are skipped until the next run, so concurrent instances and
+ * transfers never wait on the job. Reads already include unconsolidated stripes, so the interval
+ * only bounds how much is pending, not how stale a balance can be.
+ */
+@Component
+public class BalanceStripeConsolidationJob {
+
+    private final Logger logger = LoggerFactory.getLogger(BalanceStripeConsolidationJob.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public BalanceStripeConsolidationJob(
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${sops.balance-striping.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${sops.balance-striping.consolidation-interval-ms:1000}")
+    public void consolidate() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Long> userIds = userRepository.findStripedUserIds();
+        int consolidated = 0;
+        for (Long userId : userIds) {
+            Integer updated = transactionTemplate.execute(status -> userRepository.consolidateStripes(userId, Instant.now()));
+            if (updated != null && updated > 0) {
+                consolidated++;
+            }
+        }
+
+        if (consolidated > 0) {
+            logger.debug("Consolidated balance stripes of {} users", consolidated);
+        }
+    }
+}
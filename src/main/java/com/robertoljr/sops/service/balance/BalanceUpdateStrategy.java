@@ -0,0 +1,20 @@
+package com.robertoljr.sops.service.balance;
+
+import com.robertoljr.sops.constant.transaction.BalanceUpdateMode;
+import com.robertoljr.sops.money.Money;
+
+/**
+ * Moves {@code amount} from the sender's balance to the recipient's balance.
+ * <p>
+ * Implementations must be called inside an open transaction and must either apply both
+ * the debit and the credit or throw, so that the caller's transaction is rolled back.
+ */
+public interface BalanceUpdateStrategy {
+
+    BalanceUpdateMode mode();
+
+    void transfer(Long senderId, Long recipientId, Money amount);
+
+    // Only takes amount from the sender, for callers that credit the recipient somewhere else
+    void debit(Long senderId, Money amount);
+}
@@ -0,0 +1,61 @@
+package com.robertoljr.sops.service.balance;
+
+import com.robertoljr.sops.constant.transaction.BalanceUpdateMode;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.UserRepository;
+
+import java.time.Instant;
+
+/**
+ * Applies the debit as a single {@code UPDATE ... WHERE balance >= amount}, so the balance check
+ * and the write are atomic without reading the row first. Both updates are issued in ascending
+ * id order to keep the row locks they take deadlock free.
+ */
+public class ConditionalBalanceUpdateStrategy implements BalanceUpdateStrategy {
+
+    private final UserRepository userRepository;
+
+    public ConditionalBalanceUpdateStrategy(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public BalanceUpdateMode mode() {
+        return BalanceUpdateMode.CONDITIONAL;
+    }
+
+    @Override
+    public void transfer(Long senderId, Long recipientId, Money amount) {
+        Instant now = Instant.now();
+        if (senderId < recipientId) {
+            debit(senderId, amount, now);
+            credit(recipientId, amount, now);
+        } else {
+            credit(recipientId, amount, now);
+            debit(senderId, amount, now);
+        }
+    }
+
+    @Override
+    public void debit(Long senderId, Money amount) {
+        debit(senderId, amount, Instant.now());
+    }
+
+    private void debit(Long senderId, Money amount, Instant now) {
+        if (userRepository.debitIfSufficientBalance(senderId, amount.cents(), now) == 0) {
+            // Zero rows means either an unknown sender or not enough funds
+            if (!userRepository.existsById(senderId)) {
+                throw new UserNotFoundException("User not found for id: " + senderId);
+            }
+            throw new TransactionCreationException("Sender does not have enough balance to make the transfer.");
+        }
+    }
+
+    private void credit(Long recipientId, Money amount, Instant now) {
+        if (userRepository.credit(recipientId, amount.cents(), now) == 0) {
+            throw new UserNotFoundException("User not found for id: " + recipientId);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.robertoljr.sops.service.balance;
+
+import com.robertoljr.sops.constant.transaction.BalanceUpdateMode;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.UserRepository;
+import com.robertoljr.sops.repository.projection.UserBalanceView;
+
+import java.time.Instant;
+
+/**
+ * Reads balance and version without locking and writes back with a version-checked update,
+ * re-reading and retrying up to {@code maxAttempts} times when another transfer won the race.
+ * Each update keeps its row locked until commit, so both are issued in ascending id order to keep
+ * two opposite transfers from deadlocking.
+ */
+public class OptimisticBalanceUpdateStrategy implements BalanceUpdateStrategy {
+
+    private final UserRepository userRepository;
+    private final int maxAttempts;
+
+    public OptimisticBalanceUpdateStrategy(UserRepository userRepository, int maxAttempts) {
+        this.userRepository = userRepository;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public BalanceUpdateMode mode() {
+        return BalanceUpdateMode.OPTIMISTIC;
+    }
+
+    @Override
+    public void transfer(Long senderId, Long recipientId, Money amount) {
+        if (senderId < recipientId) {
+            apply(senderId, amount.negate());
+            apply(recipientId, amount);
+        } else {
+            apply(recipientId, amount);
+            apply(senderId, amount.negate());
+        }
+    }
+
+    @Override
+    public void debit(Long senderId, Money amount) {
+        apply(senderId, amount.negate());
+    }
+
+    private void apply(Long userId, Money delta) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            UserBalanceView current = userRepository.findBalanceById(userId)
+                    .orElseThrow(() -> new UserNotFoundException("User not found for id: " + userId));
+
+            Money newBalance = current.getBalance().plus(delta);
+            if (newBalance.isNegative()) {
+                throw new TransactionCreationException("Sender does not have enough balance to make the transfer.");
+            }
+
+            if (userRepository.compareAndSetBalance(userId, current.getVersion(), newBalance, Instant.now()) == 1) {
+                return;
+            }
+        }
+
+        throw new TransactionConflictException(
+                "Balance of user " + userId + " changed concurrently " + maxAttempts + " times, please retry.");
+    }
+}
@@ -0,0 +1,75 @@
+package com.robertoljr.sops.service.balance;
+
+import com.robertoljr.sops.constant.transaction.BalanceUpdateMode;
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+
+/**
+ * Locks both user rows with {@code SELECT ... FOR UPDATE}, always in ascending id order so that
+ * two opposite transfers cannot deadlock, then applies the new balances through dirty-checking.
+ */
+public class PessimisticBalanceUpdateStrategy implements BalanceUpdateStrategy {
+
+    private final EntityManager entityManager;
+
+    public PessimisticBalanceUpdateStrategy(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public BalanceUpdateMode mode() {
+        return BalanceUpdateMode.PESSIMISTIC;
+    }
+
+    @Override
+    public void transfer(Long senderId, Long recipientId, Money amount) {
+        User sender;
+        User recipient;
+        if (senderId < recipientId) {
+            sender = lock(senderId);
+            recipient = lock(recipientId);
+        } else {
+            recipient = lock(recipientId);
+            sender = lock(senderId);
+        }
+
+        withdraw(sender, amount);
+        recipient.setBalance(recipient.getBalance().plus(amount));
+    }
+
+    @Override
+    public void debit(Long senderId, Money amount) {
+        withdraw(lock(senderId), amount);
+    }
+
+    private void withdraw(User sender, Money amount) {
+        if (sender.getBalance().isLessThan(amount)) {
+            throw new TransactionCreationException("Sender does not have enough balance to make the transfer.");
+        }
+        sender.setBalance(sender.getBalance().minus(amount));
+    }
+
+    private User lock(Long userId) {
+        // The managed instance if this transaction already loaded the user, otherwise a proxy, without a query
+        User user = entityManager.getReference(User.class, userId);
+
+        // A user already loaded in this transaction may hold a stale balance: re-read it under the lock,
+        // after writing what earlier transfers of the same transaction changed, which refresh would discard
+        if (entityManager.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(user)) {
+            entityManager.flush();
+            entityManager.refresh(user, LockModeType.PESSIMISTIC_WRITE);
+            return user;
+        }
+
+        // Otherwise a single SELECT ... FOR UPDATE loads and locks it
+        user = entityManager.find(User.class, userId, LockModeType.PESSIMISTIC_WRITE);
+        if (user == null) {
+            throw new UserNotFoundException("User not found for id: " + userId);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,73 @@
+package com.robertoljr.sops.service.balance;
+
+import com.robertoljr.sops.constant.transaction.BalanceUpdateMode;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.UserRepository;
+import com.robertoljr.sops.service.UserService;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Credits MERCHANT recipients on one of {@code stripes} balance_stripes rows, picked round-robin,
+ * instead of on their users row, so payers of the same merchant no longer queue on a single row lock.
+ * Merchants can never send, so their balance is only ever read, never checked for a debit, and
+ * summing the stripes on read gives the exact total.
+ * <p>
+ * The sender is debited by {@code delegate}, so the configured mode still decides how its balance is
+ * checked and written, in ascending id order with the stripe insert, whose foreign key check locks
+ * the merchant's users row in share mode. Transfers to anyone else are handed to {@code delegate}
+ * untouched.
+ */
+public class StripedBalanceUpdateStrategy implements BalanceUpdateStrategy {
+
+    private final BalanceUpdateStrategy delegate;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final int stripes;
+    private final AtomicInteger nextStripe = new AtomicInteger();
+
+    public StripedBalanceUpdateStrategy(BalanceUpdateStrategy delegate, UserRepository userRepository, UserService userService, int stripes) {
+        this.delegate = delegate;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.stripes = stripes;
+    }
+
+    @Override
+    public BalanceUpdateMode mode() {
+        return delegate.mode();
+    }
+
+    @Override
+    public void transfer(Long senderId, Long recipientId, Money amount) {
+        // The user type never changes, so the cached profile is enough to decide
+        if (userService.findUserProfileById(recipientId).userType() != UserType.MERCHANT) {
+            delegate.transfer(senderId, recipientId, amount);
+            return;
+        }
+
+        if (senderId < recipientId) {
+            delegate.debit(senderId, amount);
+            creditStripe(recipientId, amount);
+        } else {
+            creditStripe(recipientId, amount);
+            delegate.debit(senderId, amount);
+        }
+    }
+
+    // Stripes only ever take credits
+    @Override
+    public void debit(Long senderId, Money amount) {
+        delegate.debit(senderId, amount);
+    }
+
+    private void creditStripe(Long recipientId, Money amount) {
+        int stripe = Math.floorMod(nextStripe.getAndIncrement(), stripes);
+        if (userRepository.creditStripe(recipientId, stripe, amount.cents(), Instant.now()) == 0) {
+            throw new UserNotFoundException("User not found for id: " + recipientId);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.robertoljr.sops.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.robertoljr.sops.dto.user.UserCacheStatsDTO;
+import com.robertoljr.sops.dto.user.UserResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, time-evicting cache of user profiles keyed by id, for per-transfer lookups that only
+ * need a user's identity and type, such as the striped balance strategy checking the recipient.
+ * <p>
+ * Entries never carry a balance or an updatedAt: those change on every transfer, so a cached entry
+ * cannot feed a stale balance into a debit decision. Finders that return the balance read the row
+ * from the database instead.
+ */
+@Component
+public class UserProfileCache {
+
+    private final boolean enabled;
+    private final Cache<Long, UserResponseDTO> profilesById;
+
+    public UserProfileCache(
+            @Value("${sops.user-cache.enabled:true}") boolean enabled,
+            @Value("${sops.user-cache.maximum-size:100000}") long maximumSize,
+            @Value("${sops.user-cache.expire-after-write-ms:300000}") long expireAfterWriteMs) {
+        this.enabled = enabled;
+        this.profilesById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<UserResponseDTO> findById(Long id) {
+        return enabled ? Optional.ofNullable(profilesById.getIfPresent(id)) : Optional.empty();
+    }
+
+    public void put(UserResponseDTO user) {
+        if (!enabled) {
+            return;
+        }
+        profilesById.put(user.id(), withoutVolatileFields(user));
+    }
+
+    // Evicts now and again after commit, so a concurrent reader cannot re-cache the pre-commit row
+    public void invalidate(UserResponseDTO user) {
+        evict(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(user);
+                }
+            });
+        }
+    }
+
+    public UserCacheStatsDTO stats() {
+        CacheStats stats = profilesById.stats();
+        return new UserCacheStatsDTO(
+                profilesById.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+
+    private void evict(UserResponseDTO user) {
+        profilesById.invalidate(user.id());
+    }
+
+    private UserResponseDTO withoutVolatileFields(UserResponseDTO user) {
+        return new UserResponseDTO(
+                user.id(),
+                user.legalName(),
+                user.documentType(),
+                user.documentNumber(),
+                user.email(),
+                user.phoneNumber(),
+                null,
+                user.userType(),
+                user.createdAt(),
+                null
+        );
+    }
+}
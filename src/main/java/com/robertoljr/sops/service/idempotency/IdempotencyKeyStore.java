@@ -0,0 +1,253 @@
+package com.robertoljr.sops.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.entity.IdempotencyKey;
+import com.robertoljr.sops.exception.transaction.IdempotencyKeyMismatchException;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.exception.transaction.TransactionNotAllowedException;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs each Idempotency-Key of POST /api/v1/transactions at most once and replays its result.
+ * <p>
+ * Lookups go through three layers: a bounded in-memory cache of recent results, which answers
+ * retries without a database round trip; a map of keys being executed on this instance, on which
+ * concurrent duplicates wait for the first request's outcome; and the {@code idempotency_keys}
+ * table, whose unique key lets exactly one request across all instances claim a key. A duplicate
+ * arriving on another instance while the first is still running gets a 409.
+ * <p>
+ * A key whose transfer was rejected by validation or authorization is released so the client can
+ * retry it; those failures always roll the transfer back. Any other failure may come after the
+ * transfer committed, such as a LEDGER notification that could not be enqueued, so the key is marked
+ * failed instead and retries get a 409 rather than a second transfer. The same holds if the process
+ * dies between the transfer and storing its result. Keys and results are kept for
+ * {@code sops.idempotency.retention-ms}.
+ * <p>
+ * {@code sops.idempotency.requests} counts requests by outcome: EXECUTED, CACHED, STORED,
+ * COALESCED, IN_PROGRESS, UNKNOWN and MISMATCH.
+ */
+@Component
+public class IdempotencyKeyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Logger logger = LoggerFactory.getLogger(IdempotencyKeyStore.class);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Cache<String, StoredResult> recentResults;
+    private final Map<String, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> requestCounters = new HashMap<>();
+
+    public IdempotencyKeyStore(
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${sops.idempotency.cache-size:100000}") long cacheSize,
+            @Value("${sops.idempotency.retention-ms:86400000}") long retentionMs,
+            MeterRegistry meterRegistry) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofMillis(retentionMs);
+        this.recentResults = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+        for (String outcome : List.of("EXECUTED", "CACHED", "STORED", "COALESCED", "IN_PROGRESS", "UNKNOWN", "MISMATCH")) {
+            requestCounters.put(outcome, Counter.builder("sops.idempotency.requests")
+                    .description("Requests carrying an Idempotency-Key, by outcome")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    public ResponseTransactionDTO execute(String key, CreateTransactionDTO dto, Supplier<ResponseTransactionDTO> transfer) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new TransactionCreationException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+        String requestHash = hash(dto);
+
+        StoredResult recent = recentResults.getIfPresent(key);
+        if (recent != null) {
+            return replay(key, requestHash, recent.requestHash(), recent.response(), "CACHED");
+        }
+
+        InFlightRequest request = new InFlightRequest(requestHash, new CompletableFuture<>());
+        InFlightRequest running = inFlight.putIfAbsent(key, request);
+        if (running != null) {
+            assertSameRequest(key, requestHash, running.requestHash());
+            count("COALESCED");
+            return await(running.result());
+        }
+
+        try {
+            ResponseTransactionDTO response = claimAndExecute(key, requestHash, transfer);
+            request.result().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            request.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, request);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sops.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        Integer purged = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(Instant.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private ResponseTransactionDTO claimAndExecute(String key, String requestHash, Supplier<ResponseTransactionDTO> transfer) {
+        Integer claimed = transactionTemplate.execute(status -> idempotencyKeyRepository.claim(key, requestHash, Instant.now()));
+        if (claimed == null || claimed == 0) {
+            IdempotencyKey stored = idempotencyKeyRepository.findById(key).orElse(null);
+            if (stored != null && stored.getResponse() == null && stored.getFailedAt() != null) {
+                count("UNKNOWN");
+                throw new TransactionConflictException("A request with this Idempotency-Key failed and may have been applied. " +
+                        "Check the sender's transactions before retrying with a new key.");
+            }
+            if (stored == null || stored.getResponse() == null) {
+                // Claimed by a request still running elsewhere, or released just now
+                count("IN_PROGRESS");
+                throw new TransactionConflictException("A request with this Idempotency-Key is still being processed. Please retry later.");
+            }
+            ResponseTransactionDTO response = fromJson(stored.getResponse());
+            recentResults.put(key, new StoredResult(stored.getRequestHash(), response));
+            return replay(key, requestHash, stored.getRequestHash(), response, "STORED");
+        }
+
+        ResponseTransactionDTO response;
+        try {
+            response = transfer.get();
+        } catch (RuntimeException ex) {
+            if (isRolledBack(ex)) {
+                transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.release(key));
+            } else {
+                logger.error("Idempotency-Key {} failed with an unknown outcome", key);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.fail(key, Instant.now()));
+                } catch (RuntimeException failure) {
+                    // Still claimed without a response, so retries get a 409 either way
+                    ex.addSuppressed(failure);
+                }
+            }
+            throw ex;
+        }
+
+        recentResults.put(key, new StoredResult(requestHash, response));
+        try {
+            String json = toJson(response);
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.complete(key, response.id(), json, Instant.now()));
+        } catch (RuntimeException ex) {
+            // The transfer is done; the key stays claimed, so other instances answer retries with a 409
+            logger.error("Could not store the result of Idempotency-Key {}:", key, ex);
+        }
+        count("EXECUTED");
+        return response;
+    }
+
+    // Validation and authorization failures, which are raised before the transfer commits
+    private boolean isRolledBack(RuntimeException ex) {
+        return ex instanceof TransactionCreationException
+                || ex instanceof TransactionNotAllowedException
+                || ex instanceof TransactionConflictException
+                || ex instanceof UserNotFoundException;
+    }
+
+    private ResponseTransactionDTO replay(String key, String requestHash, String storedRequestHash, ResponseTransactionDTO response, String outcome) {
+        assertSameRequest(key, requestHash, storedRequestHash);
+        logger.info("Replaying transaction {} for Idempotency-Key {}", response.id(), key);
+        count(outcome);
+        return response;
+    }
+
+    private void assertSameRequest(String key, String requestHash, String storedRequestHash) {
+        if (!requestHash.equals(storedRequestHash)) {
+            logger.error("Idempotency-Key {} reused with a different request", key);
+            count("MISMATCH");
+            throw new IdempotencyKeyMismatchException("This Idempotency-Key was already used with a different request.");
+        }
+    }
+
+    private ResponseTransactionDTO await(CompletableFuture<ResponseTransactionDTO> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    // SHA-256 over the fields that define the transfer
+    private String hash(CreateTransactionDTO dto) {
+        String request = dto.getSenderId() + "|" + dto.getRecipientId() + "|" + dto.getAmount().cents() + "|" +
+                (dto.getDescription() != null ? dto.getDescription() : "");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toJson(ResponseTransactionDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize transaction " + response.id(), ex);
+        }
+    }
+
+    private ResponseTransactionDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, ResponseTransactionDTO.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read a stored idempotent response", ex);
+        }
+    }
+
+    private void count(String outcome) {
+        requestCounters.get(outcome).increment();
+    }
+
+    private record StoredResult(String requestHash, ResponseTransactionDTO response) {
+    }
+
+    private record InFlightRequest(String requestHash, CompletableFuture<ResponseTransactionDTO> result) {
+    }
+}
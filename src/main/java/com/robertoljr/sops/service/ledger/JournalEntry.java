@@ -0,0 +1,16 @@
+package com.robertoljr.sops.service.ledger;
+
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.money.Money;
+
+import java.util.concurrent.CompletableFuture;
+
+record JournalEntry(
+        LedgerAccountSnapshot sender,
+        Long recipientId,
+        Money amount,
+        String description,
+        Status status,
+        CompletableFuture<LedgerReceipt> result
+) {
+}
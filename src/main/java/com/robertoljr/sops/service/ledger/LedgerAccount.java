@@ -0,0 +1,82 @@
+package com.robertoljr.sops.service.ledger;
+
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.money.Money;
+
+// Owned by exactly one partition thread, so it needs no synchronization
+class LedgerAccount {
+
+    private final Long id;
+    private final UserType userType;
+    private final String email;
+    private final String legalName;
+    private long balanceCents;
+    // Credits whose batch the journal has not persisted yet; they cannot be spent until it has, so
+    // undoing a failed batch never takes back money the account already passed on
+    private long pendingCreditCents;
+    // Applied transfers the journal has not settled yet; the database is behind this instance until then
+    private int pendingEntries;
+
+    LedgerAccount(Long id, UserType userType, String email, String legalName, Money balance) {
+        this.id = id;
+        this.userType = userType;
+        this.email = email;
+        this.legalName = legalName;
+        this.balanceCents = balance.cents();
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    UserType getUserType() {
+        return userType;
+    }
+
+    String getEmail() {
+        return email;
+    }
+
+    String getLegalName() {
+        return legalName;
+    }
+
+    boolean canDebit(Money amount) {
+        return balanceCents >= amount.cents();
+    }
+
+    void debit(Money amount) {
+        balanceCents = Math.subtractExact(balanceCents, amount.cents());
+    }
+
+    void credit(Money amount) {
+        balanceCents = Math.addExact(balanceCents, amount.cents());
+    }
+
+    void creditPending(Money amount) {
+        pendingCreditCents = Math.addExact(pendingCreditCents, amount.cents());
+    }
+
+    // The credit's batch was persisted: it becomes spendable
+    void confirmCredit(Money amount) {
+        pendingCreditCents = Math.subtractExact(pendingCreditCents, amount.cents());
+        balanceCents = Math.addExact(balanceCents, amount.cents());
+    }
+
+    // The credit's batch failed: it never happened
+    void cancelCredit(Money amount) {
+        pendingCreditCents = Math.subtractExact(pendingCreditCents, amount.cents());
+    }
+
+    void pin() {
+        pendingEntries++;
+    }
+
+    void unpin() {
+        pendingEntries--;
+    }
+
+    boolean isPinned() {
+        return pendingEntries > 0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.robertoljr.sops.service.ledger;
+
+record LedgerAccountSnapshot(Long id, String email, String legalName) {
+
+    static LedgerAccountSnapshot of(LedgerAccount account) {
+        return new LedgerAccountSnapshot(account.getId(), account.getEmail(), account.getLegalName());
+    }
+}
@@ -0,0 +1,214 @@
+package com.robertoljr.sops.service.ledger;
+
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.exception.transaction.TransactionNotAllowedException;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.TransactionRepository;
+import com.robertoljr.sops.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * In-memory ledger used when {@code sops.transaction.execution-mode=LEDGER}.
+ * <p>
+ * Balances are partitioned by user id across single-threaded {@link LedgerPartition}s, so no
+ * account is ever touched by two threads. A transfer is decided in two deterministic phases:
+ * the sender's partition validates and holds the funds, then the recipient's partition credits
+ * them; if the second phase fails the hold is released on the sender's partition. Decisions are
+ * persisted by the {@link LedgerJournal} and callers resume once their batch has committed.
+ * <p>
+ * An account stays pinned in its partition while it has entries the journal has not settled, so a
+ * failed entry is undone on the same instances that applied it and an account is never reloaded
+ * while the database is behind it. Credits only become spendable once their entry is persisted, so
+ * undoing a failed entry never takes back money the recipient has already passed on. Balances are
+ * only read from the database when an account is first used, which assumes the ledger is the only
+ * writer of {@code users.balance} in this mode: batches go through it like single transfers, and the
+ * reactive profile, which writes balances directly, is refused.
+ */
+@Component
+@ConditionalOnProperty(name = "sops.transaction.execution-mode", havingValue = "LEDGER")
+public class LedgerEngine {
+
+    private final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final LedgerPartition[] partitions;
+    private final LedgerJournal journal;
+
+    public LedgerEngine(
+            UserRepository userRepository,
+            TransactionRepository transactionRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${sops.ledger.partitions:0}") int partitionCount,
+            @Value("${sops.ledger.ring-capacity:8192}") int ringCapacity,
+            @Value("${sops.ledger.journal-batch-size:500}") int journalBatchSize,
+            @Value("${sops.balance-striping.enabled:false}") boolean stripingEnabled) {
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        this.partitions = new LedgerPartition[count];
+        for (int i = 0; i < count; i++) {
+            partitions[i] = new LedgerPartition(i, ringCapacity, userRepository, stripingEnabled);
+        }
+        this.journal = new LedgerJournal(transactionRepository, userRepository, transactionTemplate,
+                journalBatchSize, this::settle);
+    }
+
+    @PostConstruct
+    void start() {
+        for (LedgerPartition partition : partitions) {
+            partition.start();
+        }
+        journal.start();
+        logger.info("Ledger engine started with {} partitions", partitions.length);
+    }
+
+    @PreDestroy
+    void stop() {
+        for (LedgerPartition partition : partitions) {
+            partition.stop();
+        }
+        journal.stop();
+    }
+
+    public CompletableFuture<LedgerReceipt> transfer(Long senderId, Long recipientId, Money amount,
+                                                     String description, boolean authorized) {
+        CompletableFuture<LedgerReceipt> result = new CompletableFuture<>();
+        LedgerPartition senderPartition = partitionFor(senderId);
+        LedgerPartition recipientPartition = partitionFor(recipientId);
+
+        // Accounts the partitions do not hold yet are read here, keeping the partition threads off the database
+        LedgerPartition.AccountLoad senderLoad;
+        LedgerPartition.AccountLoad recipientLoad;
+        try {
+            senderLoad = senderPartition.load(senderId);
+            recipientLoad = recipientPartition.load(recipientId);
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+            return result;
+        }
+
+        // Phase 1: validate and hold the funds on the sender's partition
+        senderPartition.submit(() -> {
+            LedgerAccount sender;
+            try {
+                sender = senderPartition.account(senderLoad);
+                if (sender.getUserType() == UserType.MERCHANT) {
+                    throw new TransactionNotAllowedException("Sender is a MERCHANT -- not allowed to make transfers.");
+                }
+                if (senderId.equals(recipientId)) {
+                    throw new TransactionCreationException("Sender and recipient ids are the same.");
+                }
+                if (!sender.canDebit(amount)) {
+                    throw new TransactionCreationException("Sender does not have enough balance to make the transfer.");
+                }
+                if (authorized) {
+                    sender.debit(amount);
+                    sender.pin();
+                }
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+                return;
+            }
+
+            // Phase 2: credit on the recipient's partition, or release the hold if that fails
+            LedgerAccountSnapshot senderSnapshot = LedgerAccountSnapshot.of(sender);
+            Runnable credit = () -> {
+                try {
+                    LedgerAccount recipient = recipientPartition.account(recipientLoad);
+                    if (authorized) {
+                        recipient.creditPending(amount);
+                        recipient.pin();
+                    }
+                } catch (RuntimeException ex) {
+                    if (authorized) {
+                        settleOrRun(senderPartition, () -> release(sender, amount));
+                    }
+                    result.completeExceptionally(ex);
+                    return;
+                }
+                journal.append(new JournalEntry(senderSnapshot, recipientId, amount, description,
+                        authorized ? Status.SUCCEEDED : Status.FAILED, result));
+            };
+            try {
+                submitOrRun(recipientPartition, credit);
+            } catch (RuntimeException ex) {
+                if (authorized) {
+                    release(sender, amount);
+                }
+                result.completeExceptionally(ex);
+            }
+        });
+
+        return result;
+    }
+
+    private LedgerPartition partitionFor(Long userId) {
+        return partitions[(int) Math.floorMod(userId, (long) partitions.length)];
+    }
+
+    // Runs inline when already on the target partition, keeping same-partition transfers atomic
+    private void submitOrRun(LedgerPartition partition, Runnable command) {
+        if (partition.isPartitionThread()) {
+            command.run();
+        } else {
+            partition.submit(command);
+        }
+    }
+
+    // Same for settlements, which must not be rejected by a saturated partition
+    private void settleOrRun(LedgerPartition partition, Runnable command) {
+        if (partition.isPartitionThread()) {
+            command.run();
+        } else {
+            partition.settle(command);
+        }
+    }
+
+    // Gives back a hold whose credit never happened, on the partition thread of the sender
+    private void release(LedgerAccount sender, Money amount) {
+        sender.credit(amount);
+        sender.unpin();
+    }
+
+    // Unpins the accounts of flushed entries. Pinned accounts are never evicted, so the instances
+    // found here are the ones that applied the entries. A persisted entry makes its credit spendable;
+    // one that was not is undone, and accounts left without pending entries are dropped so they are
+    // reloaded next time.
+    private void settle(List<JournalEntry> entries, boolean persisted) {
+        for (JournalEntry entry : entries) {
+            if (entry.status() != Status.SUCCEEDED) {
+                continue;
+            }
+            Money amount = entry.amount();
+            if (persisted) {
+                settle(entry.sender().id(), false, account -> { });
+                settle(entry.recipientId(), false, account -> account.confirmCredit(amount));
+            } else {
+                settle(entry.sender().id(), true, account -> account.credit(amount));
+                settle(entry.recipientId(), true, account -> account.cancelCredit(amount));
+            }
+        }
+    }
+
+    private void settle(Long userId, boolean undone, Consumer<LedgerAccount> change) {
+        LedgerPartition partition = partitionFor(userId);
+        partition.settle(() -> {
+            LedgerAccount account = partition.pinned(userId);
+            account.unpin();
+            change.accept(account);
+            if (undone) {
+                partition.evictIfUnpinned(account);
+            }
+        });
+    }
+}
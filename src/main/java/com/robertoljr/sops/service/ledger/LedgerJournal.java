@@ -0,0 +1,158 @@
+package com.robertoljr.sops.service.ledger;
+
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.entity.Transaction;
+import com.robertoljr.sops.repository.TransactionRepository;
+import com.robertoljr.sops.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Write-behind journal of ledger decisions. A single flusher thread drains entries in batches and
+ * persists each batch in one database transaction: the transactions rows plus one net balance
+ * update per touched user. Callers are completed only after their entry commits (group commit).
+ * If a batch fails, its entries are persisted one transaction each, so only the entries that fail
+ * on their own are lost. Every entry is handed to {@code onFlushed} with whether it was persisted,
+ * so the partitions can settle the accounts it touched.
+ */
+class LedgerJournal implements Runnable {
+
+    private final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+
+    private final BlockingQueue<JournalEntry> entries = new LinkedBlockingQueue<>();
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final BiConsumer<List<JournalEntry>, Boolean> onFlushed;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    LedgerJournal(TransactionRepository transactionRepository,
+                  UserRepository userRepository,
+                  TransactionTemplate transactionTemplate,
+                  int batchSize,
+                  BiConsumer<List<JournalEntry>, Boolean> onFlushed) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.onFlushed = onFlushed;
+        this.thread = new Thread(this, "ledger-journal");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    void append(JournalEntry entry) {
+        entries.add(entry);
+    }
+
+    @Override
+    public void run() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        while (running || !entries.isEmpty()) {
+            try {
+                JournalEntry first = entries.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                entries.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<JournalEntry> batch) {
+        List<Transaction> transactions;
+        try {
+            transactions = transactionTemplate.execute(status -> persist(batch));
+        } catch (RuntimeException ex) {
+            logger.error("Failed to persist ledger batch of {} entries, persisting them one by one:", batch.size(), ex);
+            batch.forEach(this::flush);
+            return;
+        }
+
+        onFlushed.accept(List.copyOf(batch), true);
+
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), transactions.get(i));
+        }
+    }
+
+    private void flush(JournalEntry entry) {
+        List<Transaction> transactions;
+        try {
+            transactions = transactionTemplate.execute(status -> persist(List.of(entry)));
+        } catch (RuntimeException ex) {
+            logger.error("Failed to persist ledger entry from user {} to user {}:", entry.sender().id(), entry.recipientId(), ex);
+            onFlushed.accept(List.of(entry), false);
+            entry.result().completeExceptionally(ex);
+            return;
+        }
+
+        onFlushed.accept(List.of(entry), true);
+        complete(entry, transactions.get(0));
+    }
+
+    private void complete(JournalEntry entry, Transaction transaction) {
+        entry.result().complete(new LedgerReceipt(transaction, entry.sender().email(), entry.sender().legalName()));
+    }
+
+    private List<Transaction> persist(List<JournalEntry> batch) {
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        // Sorted so that concurrent writers lock user rows in the same order
+        Map<Long, Long> deltas = new TreeMap<>();
+
+        for (JournalEntry entry : batch) {
+            Transaction transaction = new Transaction();
+            transaction.setSender(userRepository.getReferenceById(entry.sender().id()));
+            transaction.setRecipient(userRepository.getReferenceById(entry.recipientId()));
+            transaction.setAmount(entry.amount());
+            transaction.setDescription(entry.description());
+            transaction.setStatus(entry.status());
+            transactions.add(transaction);
+
+            if (entry.status() == Status.SUCCEEDED) {
+                deltas.merge(entry.sender().id(), -entry.amount().cents(), Math::addExact);
+                deltas.merge(entry.recipientId(), entry.amount().cents(), Math::addExact);
+            }
+        }
+
+        Instant now = Instant.now();
+        // Net delta per user, so a payer with many transfers in the batch is updated once
+        deltas.forEach((userId, delta) -> {
+            if (delta != 0) {
+                userRepository.credit(userId, delta, now);
+            }
+        });
+
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        logger.debug("Persisted ledger batch: {} transactions, {} balance updates", saved.size(), deltas.size());
+        return saved;
+    }
+}
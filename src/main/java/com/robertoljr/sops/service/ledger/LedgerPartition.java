@@ -0,0 +1,138 @@
+package com.robertoljr.sops.service.ledger;
+
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
+import com.robertoljr.sops.exception.user.UserNotFoundException;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer owner of a slice of the accounts. Every read or write of an account in this
+ * partition runs as a command on the partition thread, in submission order.
+ * <p>
+ * Accounts are read from the database by the submitting thread, never by the partition thread, and
+ * only installed if the partition does not hold the account yet. Settlements of journal batches run
+ * ahead of queued transfers and are never rejected.
+ */
+class LedgerPartition implements Runnable {
+
+    private final Logger logger = LoggerFactory.getLogger(LedgerPartition.class);
+
+    private final int index;
+    private final UserRepository userRepository;
+    private final boolean stripingEnabled;
+    private final LedgerRingBuffer<Runnable> commands;
+    private final Queue<Runnable> settlements = new ConcurrentLinkedQueue<>();
+    // Written only by the partition thread; read by submitters to skip loading held accounts
+    private final Map<Long, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long evictions;
+
+    LedgerPartition(int index, int capacity, UserRepository userRepository, boolean stripingEnabled) {
+        this.index = index;
+        this.userRepository = userRepository;
+        this.stripingEnabled = stripingEnabled;
+        this.commands = new LedgerRingBuffer<>(capacity);
+        this.thread = new Thread(this, "ledger-partition-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    void submit(Runnable command) {
+        if (!commands.offer(command)) {
+            throw new TransactionConflictException("Ledger partition " + index + " is saturated, please retry.");
+        }
+        LockSupport.unpark(thread);
+    }
+
+    void settle(Runnable command) {
+        settlements.add(command);
+        LockSupport.unpark(thread);
+    }
+
+    boolean isPartitionThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    // Called on the submitting thread, before the command that needs the account is submitted
+    AccountLoad load(Long userId) {
+        long evictionsBefore = evictions;
+        if (accounts.containsKey(userId)) {
+            return new AccountLoad(userId, null, evictionsBefore);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found for id: " + userId));
+        // Credits still sitting in balance_stripes belong to the balance until they are consolidated
+        Money balance = stripingEnabled ? user.getBalance().plus(Money.of(userRepository.sumStripesByUserId(userId))) : user.getBalance();
+        LedgerAccount account = new LedgerAccount(user.getId(), user.getUserType(), user.getEmail(), user.getLegalName(), balance);
+        return new AccountLoad(userId, account, evictionsBefore);
+    }
+
+    // Only called from commands, i.e. on the partition thread. A held account always wins over the
+    // loaded one, which may predate transfers the partition applied since
+    LedgerAccount account(AccountLoad load) {
+        LedgerAccount account = accounts.get(load.userId());
+        if (account != null) {
+            return account;
+        }
+        // Evicted since it was loaded: the loaded balance may predate the flushes before the eviction
+        if (load.account() == null || load.evictions() != evictions) {
+            throw new TransactionConflictException("Ledger account " + load.userId() + " was reloaded, please retry.");
+        }
+        accounts.put(load.userId(), load.account());
+        return load.account();
+    }
+
+    // Only called from commands, i.e. on the partition thread; an account with pending entries is always held
+    LedgerAccount pinned(Long userId) {
+        return accounts.get(userId);
+    }
+
+    // Only called from commands, i.e. on the partition thread; pinned accounts are ahead of the
+    // database, so only unpinned ones are dropped
+    void evictIfUnpinned(LedgerAccount account) {
+        if (!account.isPinned() && accounts.remove(account.getId(), account)) {
+            evictions++;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            Runnable command = settlements.poll();
+            if (command == null) {
+                command = commands.poll();
+            }
+            if (command == null) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+                continue;
+            }
+            try {
+                command.run();
+            } catch (RuntimeException ex) {
+                logger.error("Ledger partition {} command failed:", index, ex);
+            }
+        }
+    }
+
+    record AccountLoad(Long userId, LedgerAccount account, long evictions) {
+    }
+}
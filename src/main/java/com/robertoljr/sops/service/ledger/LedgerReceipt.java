@@ -0,0 +1,10 @@
+package com.robertoljr.sops.service.ledger;
+
+import com.robertoljr.sops.entity.Transaction;
+
+public record LedgerReceipt(
+        Transaction transaction,
+        String senderEmail,
+        String senderLegalName
+) {
+}
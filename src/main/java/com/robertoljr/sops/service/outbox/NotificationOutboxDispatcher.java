@@ -0,0 +1,152 @@
+package com.robertoljr.sops.service.outbox;
+
+import com.robertoljr.sops.constant.notification.Status;
+import com.robertoljr.sops.entity.Notification;
+import com.robertoljr.sops.entity.NotificationOutbox;
+import com.robertoljr.sops.metrics.NotificationMetrics;
+import com.robertoljr.sops.repository.NotificationOutboxRepository;
+import com.robertoljr.sops.service.NotificationService;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Delivers notifications enqueued in {@code notification_outbox}.
+ * <p>
+ * Each round claims a batch of due rows with {@code FOR UPDATE SKIP LOCKED} and leases them by
+ * pushing {@code next_attempt_at} forward, then commits, so no connection is held while the
+ * notifier is called. Deliveries run concurrently on virtual threads. Delivered rows are removed;
+ * failed ones are marked FAILED and rescheduled with exponential backoff until
+ * {@code max-attempts} is reached.
+ */
+@Component
+@ConditionalOnProperty(name = "sops.notification.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationOutboxDispatcher {
+
+    private final Logger logger = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationMetrics notificationMetrics;
+    // Keeps deliveries inside the trace of the scheduled run that claimed them
+    private final ExecutorService executor = ContextExecutorService.wrap(
+            Executors.newVirtualThreadPerTaskExecutor(), ContextSnapshotFactory.builder().build()::captureAll);
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+
+    public NotificationOutboxDispatcher(
+            NotificationOutboxRepository notificationOutboxRepository,
+            NotificationService notificationService,
+            TransactionTemplate transactionTemplate,
+            NotificationMetrics notificationMetrics,
+            @Value("${sops.notification.outbox.batch-size:100}") int batchSize,
+            @Value("${sops.notification.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${sops.notification.outbox.lease-ms:30000}") long leaseMs,
+            @Value("${sops.notification.outbox.backoff-base-ms:1000}") long backoffBaseMs,
+            @Value("${sops.notification.outbox.backoff-max-ms:600000}") long backoffMaxMs) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationMetrics = notificationMetrics;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.backoffBase = Duration.ofMillis(backoffBaseMs);
+        this.backoffMax = Duration.ofMillis(backoffMaxMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${sops.notification.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        List<Long> claimed;
+        do {
+            claimed = claim();
+            if (!claimed.isEmpty()) {
+                complete(deliver(claimed));
+            }
+        } while (claimed.size() == batchSize);
+    }
+
+    private List<Long> claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<NotificationOutbox> due = notificationOutboxRepository.claimDue(now, batchSize);
+            due.forEach(entry -> entry.setNextAttemptAt(now.plus(lease)));
+            return due.stream().map(NotificationOutbox::getId).toList();
+        });
+    }
+
+    private Map<Long, Boolean> deliver(List<Long> outboxIds) {
+        Map<Long, Future<Boolean>> deliveries = new HashMap<>();
+        for (Long outboxId : outboxIds) {
+            deliveries.put(outboxId, executor.submit(() -> notificationService.deliverOutboxEntry(outboxId)));
+        }
+
+        Map<Long, Boolean> outcomes = new HashMap<>();
+        deliveries.forEach((outboxId, delivery) -> {
+            try {
+                outcomes.put(outboxId, delivery.get());
+            } catch (Exception ex) {
+                logger.error("Notification delivery for outbox id {} failed: {}", outboxId, ex.getMessage());
+                outcomes.put(outboxId, false);
+            }
+        });
+        return outcomes;
+    }
+
+    private void complete(Map<Long, Boolean> outcomes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            for (NotificationOutbox entry : notificationOutboxRepository.findAllById(outcomes.keySet())) {
+                Notification notification = entry.getNotification();
+                if (outcomes.get(entry.getId())) {
+                    notification.setStatus(Status.SENT);
+                    notification.setSentAt(now);
+                    notificationMetrics.record(Status.SENT, notification.getChannel());
+                    notificationOutboxRepository.delete(entry);
+                    continue;
+                }
+
+                notification.setStatus(Status.FAILED);
+                notificationMetrics.record(Status.FAILED, notification.getChannel());
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setLastError("Notification service unavailable");
+                if (entry.getAttempts() >= maxAttempts) {
+                    logger.error("Giving up on notification id {} after {} attempts", notification.getId(), entry.getAttempts());
+                    notificationOutboxRepository.delete(entry);
+                } else {
+                    entry.setNextAttemptAt(now.plus(backoff(entry.getAttempts())));
+                }
+            }
+        });
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+}
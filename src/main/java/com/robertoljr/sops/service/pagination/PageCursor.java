@@ -0,0 +1,56 @@
+package com.robertoljr.sops.service.pagination;
+
+import com.robertoljr.sops.dto.CursorPageDTO;
+import com.robertoljr.sops.exception.InvalidCursorException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset position over rows ordered by (createdAt, id). Clients only ever see it as an opaque
+ * URL-safe token; the first page starts from {@link #FIRST}, which sorts before every row.
+ */
+public record PageCursor(Instant createdAt, Long id) {
+
+    public static final PageCursor FIRST = new PageCursor(Instant.EPOCH, 0L);
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new PageCursor(Instant.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException("Invalid page cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int pageSize(int size) {
+        return Math.clamp(size, 1, MAX_PAGE_SIZE);
+    }
+
+    // One extra row is fetched to tell whether a next page exists
+    public static Limit limitFor(int size) {
+        return Limit.of(pageSize(size) + 1);
+    }
+
+    public static <E, D> CursorPageDTO<D> toPage(List<E> rows, int size, Function<E, PageCursor> position, Function<E, D> mapper) {
+        size = pageSize(size);
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? position.apply(pageRows.get(size - 1)).encode() : null;
+        return new CursorPageDTO<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,94 @@
+package com.robertoljr.sops.service.partition;
+
+import com.robertoljr.sops.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code transactions} and {@code notifications} ahead of the
+ * clock and, when a retention is configured, drops whole partitions that fell out of it.
+ * <p>
+ * Runs once at startup and then on {@code sops.partitions.maintenance-cron}. Both steps go through
+ * the functions created in V10, which skip partitions that already exist, so concurrent instances
+ * are harmless. If it falls behind, inserts land in the DEFAULT partitions and are moved into their
+ * month's partition when it is created.
+ */
+@Component
+public class PartitionMaintenanceJob {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("transactions", "notifications");
+
+    private final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public PartitionMaintenanceJob(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            NotificationOutboxRepository notificationOutboxRepository,
+            @Value("${sops.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${sops.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${sops.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : PARTITIONED_TABLES) {
+                // The current month plus monthsAhead, so inserts never find a missing partition
+                Integer created = jdbcTemplate.queryForObject(
+                        "SELECT create_monthly_partitions(?, CURRENT_DATE, ?)", Integer.class, table, monthsAhead + 1);
+                if (created != null && created > 0) {
+                    logger.info("Created {} partitions for {}", created, table);
+                }
+            }
+        });
+
+        if (retentionMonths > 0) {
+            dropExpiredPartitions();
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int dropped = 0;
+            for (String table : PARTITIONED_TABLES) {
+                Integer count = jdbcTemplate.queryForObject(
+                        "SELECT drop_monthly_partitions_before(?, (date_trunc('month', CURRENT_DATE) - make_interval(months => ?))::DATE)",
+                        Integer.class, table, retentionMonths);
+                if (count != null && count > 0) {
+                    logger.info("Dropped {} partitions of {} older than {} months", count, table, retentionMonths);
+                    dropped += count;
+                }
+            }
+
+            // notification_outbox cannot reference the partitioned notifications table with a foreign key
+            if (dropped > 0) {
+                int orphans = notificationOutboxRepository.deleteOrphans();
+                logger.info("Deleted {} outbox rows of dropped notifications", orphans);
+            }
+        });
+    }
+}
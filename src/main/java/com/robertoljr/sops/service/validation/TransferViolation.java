@@ -0,0 +1,40 @@
+package com.robertoljr.sops.service.validation;
+
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.money.Money;
+
+/**
+ * The rules a transfer can break before any balance is touched. The check only looks at values,
+ * so the same rules apply to cached profiles, locked entities and benchmarks.
+ */
+public enum TransferViolation {
+    MERCHANT_SENDER("Sender is a MERCHANT -- not allowed to make transfers."),
+    SAME_USER("Sender and recipient ids are the same."),
+    INSUFFICIENT_BALANCE("Sender does not have enough balance to make the transfer.");
+
+    private final String message;
+
+    TransferViolation(String message) {
+        this.message = message;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    // Returns the first rule the transfer breaks, or null when it is allowed
+    public static TransferViolation check(UserType senderType, Long senderId, Long recipientId,
+                                          Money senderBalance, Money amount) {
+        // MERCHANT users are not allowed to make transfers
+        if (senderType == UserType.MERCHANT) {
+            return MERCHANT_SENDER;
+        }
+        if (senderId.equals(recipientId)) {
+            return SAME_USER;
+        }
+        if (senderBalance.isLessThan(amount)) {
+            return INSUFFICIENT_BALANCE;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.robertoljr.sops.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Wraps each repository method call in a {@code sops.repository} observation, which becomes a
+ * child span of the current trace named after the repository and method. For methods returning a
+ * Stream only opening the cursor is covered.
+ */
+class RepositoryObservationInterceptor implements MethodInterceptor {
+
+    private final String repository;
+    private final ObjectProvider<ObservationRegistry> observationRegistryProvider;
+    private volatile ObservationRegistry observationRegistry;
+
+    RepositoryObservationInterceptor(Class<?> repositoryInterface, ObjectProvider<ObservationRegistry> observationRegistryProvider) {
+        this.repository = repositoryInterface.getSimpleName();
+        this.observationRegistryProvider = observationRegistryProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        return Observation.createNotStarted("sops.repository", observationRegistry())
+                .contextualName(repository + "#" + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked(invocation::proceed);
+    }
+
+    // Resolved on first use; repositories are created before the registry is fully configured
+    private ObservationRegistry observationRegistry() {
+        ObservationRegistry registry = observationRegistry;
+        if (registry == null) {
+            registry = observationRegistryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
+            observationRegistry = registry;
+        }
+        return registry;
+    }
+}
@@ -0,0 +1,33 @@
+package com.robertoljr.sops.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactoryBean;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a {@link RepositoryObservationInterceptor} to every Spring Data repository proxy, so each
+ * query shows up as its own span under the request or scheduled task that issued it.
+ */
+@Component
+public class RepositoryObservationPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ObservationRegistry> observationRegistryProvider;
+
+    public RepositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistryProvider) {
+        this.observationRegistryProvider = observationRegistryProvider;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // R2DBC repositories return before their query runs, so the span would close before it starts
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean && !(bean instanceof R2dbcRepositoryFactoryBean<?, ?, ?>)) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                            new RepositoryObservationInterceptor(repositoryInformation.getRepositoryInterface(), observationRegistryProvider))));
+        }
+        return bean;
+    }
+}
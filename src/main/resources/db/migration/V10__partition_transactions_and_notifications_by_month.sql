@@ -0,0 +1,185 @@
+-- Converts transactions and notifications to monthly range partitions on created_at, so date-range
+-- finders only scan the months they ask for and retention drops whole partitions instead of deleting rows.
+--
+-- Postgres requires the partition key in every unique constraint, so the primary keys become
+-- (id, created_at). Ids still come from the shared sequences and stay unique, but no other table can
+-- reference them with a foreign key, so notifications.transaction_id and notification_outbox.notification_id
+-- lose theirs.
+--
+-- Each table also gets a DEFAULT partition, so an insert for a month whose partition is missing is
+-- kept instead of failing; create_monthly_partitions moves such rows out when it creates the month.
+
+-- perform_transfer returns the transactions row type, which is dropped with the old table. Its V8
+-- definition is kept here and recreated unchanged once the new table exists
+CREATE TEMPORARY TABLE perform_transfer_definition ON COMMIT DROP AS
+SELECT pg_get_functiondef('perform_transfer(BIGINT, BIGINT, NUMERIC, TEXT, BOOLEAN, BOOLEAN)'::REGPROCEDURE) AS definition;
+DROP FUNCTION perform_transfer(BIGINT, BIGINT, NUMERIC, TEXT, BOOLEAN, BOOLEAN);
+
+ALTER TABLE notification_outbox DROP CONSTRAINT IF EXISTS fk_notification_outbox;
+ALTER TABLE notifications DROP CONSTRAINT IF EXISTS fk_transaction_notification;
+
+-- The V9 indexes are rebuilt on the partitioned tables
+DROP INDEX IF EXISTS idx_transactions_sender_created_at;
+DROP INDEX IF EXISTS idx_transactions_recipient_created_at;
+DROP INDEX IF EXISTS idx_transactions_status_created_at;
+DROP INDEX IF EXISTS idx_transactions_created_at;
+DROP INDEX IF EXISTS idx_transactions_pending_created_at;
+DROP INDEX IF EXISTS idx_notifications_user_created_at;
+DROP INDEX IF EXISTS idx_notifications_transaction_created_at;
+DROP INDEX IF EXISTS idx_notifications_status_created_at;
+DROP INDEX IF EXISTS idx_notifications_created_at;
+DROP INDEX IF EXISTS idx_notifications_pending_created_at;
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER INDEX transactions_pkey RENAME TO transactions_unpartitioned_pkey;
+ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+ALTER INDEX notifications_pkey RENAME TO notifications_unpartitioned_pkey;
+
+-- Keep the id sequences alive when the old tables are dropped
+ALTER SEQUENCE transactions_seq OWNED BY NONE;
+ALTER SEQUENCE notifications_seq OWNED BY NONE;
+
+CREATE TABLE transactions (
+    id              BIGINT          NOT NULL DEFAULT nextval('transactions_seq'),
+    sender_id       BIGINT          NOT NULL,
+    recipient_id    BIGINT          NOT NULL,
+    amount          NUMERIC(19,2)   NOT NULL CHECK (amount > 0),
+    status          VARCHAR(10)     NOT NULL DEFAULT 'PENDING',
+    description     TEXT,
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT transactions_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_sender FOREIGN KEY (sender_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_recipient FOREIGN KEY (recipient_id) REFERENCES users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE notifications (
+    id              BIGINT          NOT NULL DEFAULT nextval('notifications_seq'),
+    user_id         BIGINT          NOT NULL,
+    transaction_id  BIGINT          NOT NULL,
+    channel         VARCHAR(20)     NOT NULL,
+    destination     VARCHAR(100)    NOT NULL,
+    subject         VARCHAR(150),
+    message         TEXT            NOT NULL,
+    status          VARCHAR(20)     NOT NULL DEFAULT 'PENDING',
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    sent_at         TIMESTAMP WITHOUT TIME ZONE,
+
+    CONSTRAINT notifications_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_user_notification FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE transactions_seq OWNED BY transactions.id;
+ALTER SEQUENCE notifications_seq OWNED BY notifications.id;
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+-- Creates the monthly partitions <parent>_pYYYY_MM covering p_months months from the month of p_from.
+-- Existing partitions are skipped, so the maintenance job can call it repeatedly. Rows that were
+-- inserted into <parent>_default while their month had no partition are moved into the new one.
+CREATE OR REPLACE FUNCTION create_monthly_partitions(p_parent TEXT, p_from DATE, p_months INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_start   DATE := date_trunc('month', p_from)::DATE;
+    v_end     DATE;
+    v_name    TEXT;
+    v_default TEXT := p_parent || '_default';
+    v_stray   BOOLEAN;
+    v_created INTEGER := 0;
+BEGIN
+    FOR i IN 1..p_months LOOP
+        v_end := (v_start + INTERVAL '1 month')::DATE;
+        v_name := format('%s_p%s', p_parent, to_char(v_start, 'YYYY_MM'));
+        IF to_regclass(v_name) IS NULL THEN
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE created_at >= %L AND created_at < %L)',
+                           v_default, v_start, v_end) INTO v_stray;
+            IF v_stray THEN
+                -- A partition cannot be created over rows the default partition holds for its range
+                EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name, p_parent);
+                EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM moved', v_default, v_start, v_end, v_name);
+                EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               p_parent, v_name, v_start, v_end);
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                               v_name, p_parent, v_start, v_end);
+            END IF;
+            v_created := v_created + 1;
+        END IF;
+        v_start := v_end;
+    END LOOP;
+    RETURN v_created;
+END;
+$$;
+
+-- Drops the monthly partitions of p_parent that end on or before p_before; returns how many were dropped
+CREATE OR REPLACE FUNCTION drop_monthly_partitions_before(p_parent TEXT, p_before DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_partition TEXT;
+    v_dropped   INTEGER := 0;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = p_parent::REGCLASS
+          AND c.relname ~ '_p[0-9]{4}_[0-9]{2}$'
+          AND (to_date(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month')::DATE <= p_before
+    LOOP
+        EXECUTE format('DROP TABLE %I', v_partition);
+        v_dropped := v_dropped + 1;
+    END LOOP;
+    RETURN v_dropped;
+END;
+$$;
+
+-- Partitions for every month that already has rows, plus the next three
+DO $$
+DECLARE
+    v_from   DATE := date_trunc('month', LEAST(
+                        COALESCE((SELECT MIN(created_at) FROM transactions_unpartitioned), NOW()),
+                        COALESCE((SELECT MIN(created_at) FROM notifications_unpartitioned), NOW())))::DATE;
+    v_months INTEGER := (EXTRACT(YEAR FROM age(date_trunc('month', NOW()), v_from)) * 12
+                         + EXTRACT(MONTH FROM age(date_trunc('month', NOW()), v_from)))::INTEGER + 4;
+BEGIN
+    PERFORM create_monthly_partitions('transactions', v_from, v_months);
+    PERFORM create_monthly_partitions('notifications', v_from, v_months);
+END;
+$$;
+
+INSERT INTO transactions (id, sender_id, recipient_id, amount, status, description, created_at, updated_at)
+SELECT id, sender_id, recipient_id, amount, status, description, created_at, updated_at
+FROM transactions_unpartitioned;
+
+INSERT INTO notifications (id, user_id, transaction_id, channel, destination, subject, message, status, created_at, sent_at)
+SELECT id, user_id, transaction_id, channel, destination, subject, message, status, created_at, sent_at
+FROM notifications_unpartitioned;
+
+DROP TABLE notifications_unpartitioned;
+DROP TABLE transactions_unpartitioned;
+
+-- Same indexes as V9; created on the parents, they cascade to every current and future partition
+CREATE INDEX idx_transactions_sender_created_at ON transactions (sender_id, created_at, id);
+CREATE INDEX idx_transactions_recipient_created_at ON transactions (recipient_id, created_at, id);
+CREATE INDEX idx_transactions_status_created_at ON transactions (status, created_at, id);
+CREATE INDEX idx_transactions_created_at ON transactions (created_at, id);
+CREATE INDEX idx_transactions_pending_created_at ON transactions (created_at, id) WHERE status = 'PENDING';
+
+CREATE INDEX idx_notifications_user_created_at ON notifications (user_id, created_at, id);
+CREATE INDEX idx_notifications_transaction_created_at ON notifications (transaction_id, created_at, id);
+CREATE INDEX idx_notifications_status_created_at ON notifications (status, created_at, id);
+CREATE INDEX idx_notifications_created_at ON notifications (created_at, id);
+CREATE INDEX idx_notifications_pending_created_at ON notifications (created_at, id) WHERE status = 'PENDING';
+
+DO $$
+BEGIN
+    EXECUTE (SELECT definition FROM perform_transfer_definition);
+END;
+$$;
@@ -0,0 +1,13 @@
+-- Idempotency-Key values of POST /api/v1/transactions. The primary key's unique index is what lets
+-- a single request, across every instance, claim a key; response stays NULL while it is processed.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash    VARCHAR(64) NOT NULL,
+    transaction_id  BIGINT,
+    response        TEXT,
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    completed_at    TIMESTAMP WITHOUT TIME ZONE
+);
+
+-- Expired keys are purged by creation time
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,12 @@
+-- Credits to a MERCHANT waiting to be folded into users.balance. With sops.balance-striping.enabled
+-- each credit lands on one of the merchant's stripe rows instead of the users row, so concurrent payers
+-- contend on different rows; a user's exact balance is users.balance plus the sum of its stripes.
+CREATE TABLE IF NOT EXISTS balance_stripes (
+    user_id    BIGINT        NOT NULL,
+    stripe     SMALLINT      NOT NULL,
+    balance    NUMERIC(19,2) NOT NULL DEFAULT 0.00,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+
+    PRIMARY KEY (user_id, stripe),
+    CONSTRAINT fk_balance_stripes_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
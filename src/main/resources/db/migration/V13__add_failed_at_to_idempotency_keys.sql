@@ -0,0 +1,3 @@
+-- Set when a request failed in a way that may have happened after its transfer committed; the key
+-- is kept rather than released, so a retry cannot run the transfer a second time.
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS failed_at TIMESTAMP WITHOUT TIME ZONE;
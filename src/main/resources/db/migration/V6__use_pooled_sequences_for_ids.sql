@@ -0,0 +1,33 @@
+-- Replace the BIGSERIAL defaults with explicit sequences that hand out blocks of 50 ids, so Hibernate
+-- (pooled-lo optimizer) can assign ids without a round trip per insert and batch the INSERTs.
+-- Plain nextval() callers such as perform_transfer still receive disjoint values.
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS transactions_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS notifications_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('transactions_seq', COALESCE((SELECT MAX(id) FROM transactions), 0) + 1, false);
+SELECT setval('notifications_seq', COALESCE((SELECT MAX(id) FROM notifications), 0) + 1, false);
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE transactions ALTER COLUMN id SET DEFAULT nextval('transactions_seq');
+ALTER TABLE notifications ALTER COLUMN id SET DEFAULT nextval('notifications_seq');
+
+ALTER SEQUENCE users_seq OWNED BY users.id;
+ALTER SEQUENCE transactions_seq OWNED BY transactions.id;
+ALTER SEQUENCE notifications_seq OWNED BY notifications.id;
+
+DROP SEQUENCE IF EXISTS users_id_seq;
+DROP SEQUENCE IF EXISTS transactions_id_seq;
+DROP SEQUENCE IF EXISTS notifications_id_seq;
+
+-- The foreign key columns were declared as BIGSERIAL by mistake; they must never be generated
+ALTER TABLE transactions ALTER COLUMN sender_id DROP DEFAULT;
+ALTER TABLE transactions ALTER COLUMN recipient_id DROP DEFAULT;
+ALTER TABLE notifications ALTER COLUMN user_id DROP DEFAULT;
+ALTER TABLE notifications ALTER COLUMN transaction_id DROP DEFAULT;
+
+DROP SEQUENCE IF EXISTS transactions_sender_id_seq;
+DROP SEQUENCE IF EXISTS transactions_recipient_id_seq;
+DROP SEQUENCE IF EXISTS notifications_user_id_seq;
+DROP SEQUENCE IF EXISTS notifications_transaction_id_seq;
@@ -0,0 +1,17 @@
+CREATE SEQUENCE IF NOT EXISTS notification_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id              BIGINT PRIMARY KEY DEFAULT nextval('notification_outbox_seq'),
+    notification_id BIGINT NOT NULL UNIQUE,
+    attempts        INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    last_error      TEXT,
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_notification_outbox FOREIGN KEY (notification_id) REFERENCES notifications(id) ON DELETE CASCADE
+);
+
+ALTER SEQUENCE notification_outbox_seq OWNED BY notification_outbox.id;
+
+-- The dispatcher claims due rows in next_attempt_at order
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_next_attempt_at ON notification_outbox (next_attempt_at);
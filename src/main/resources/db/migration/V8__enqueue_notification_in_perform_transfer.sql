@@ -0,0 +1,72 @@
+-- Same as V5, except that a NULL p_notification_sent stores the notification as PENDING and
+-- enqueues it in notification_outbox for asynchronous delivery
+CREATE OR REPLACE FUNCTION perform_transfer(
+    p_sender_id           BIGINT,
+    p_recipient_id        BIGINT,
+    p_amount              NUMERIC(19,2),
+    p_description         TEXT,
+    p_authorized          BOOLEAN,
+    p_notification_sent   BOOLEAN
+)
+RETURNS SETOF transactions
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_sender          users%ROWTYPE;
+    v_recipient_id    BIGINT;
+    v_transaction     transactions%ROWTYPE;
+    v_notification_id BIGINT;
+BEGIN
+    -- Lock both rows in ascending id order so opposite transfers cannot deadlock
+    PERFORM 1 FROM users WHERE id IN (p_sender_id, p_recipient_id) ORDER BY id FOR UPDATE;
+
+    SELECT * INTO v_sender FROM users WHERE id = p_sender_id;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'User not found for id: %', p_sender_id USING ERRCODE = 'SOP01';
+    END IF;
+
+    SELECT id INTO v_recipient_id FROM users WHERE id = p_recipient_id;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'User not found for id: %', p_recipient_id USING ERRCODE = 'SOP01';
+    END IF;
+
+    IF v_sender.user_type = 'MERCHANT' THEN
+        RAISE EXCEPTION 'Sender is a MERCHANT -- not allowed to make transfers.' USING ERRCODE = 'SOP02';
+    END IF;
+
+    IF p_sender_id = p_recipient_id THEN
+        RAISE EXCEPTION 'Sender and recipient ids are the same.' USING ERRCODE = 'SOP03';
+    END IF;
+
+    IF v_sender.balance < p_amount THEN
+        RAISE EXCEPTION 'Sender does not have enough balance to make the transfer.' USING ERRCODE = 'SOP04';
+    END IF;
+
+    IF p_authorized THEN
+        UPDATE users SET balance = balance - p_amount, version = version + 1, updated_at = NOW()
+        WHERE id = p_sender_id;
+        UPDATE users SET balance = balance + p_amount, version = version + 1, updated_at = NOW()
+        WHERE id = p_recipient_id;
+    END IF;
+
+    INSERT INTO transactions (sender_id, recipient_id, amount, status, description)
+    VALUES (p_sender_id, p_recipient_id, p_amount,
+            CASE WHEN p_authorized THEN 'SUCCEEDED' ELSE 'FAILED' END, p_description)
+    RETURNING * INTO v_transaction;
+
+    INSERT INTO notifications (user_id, transaction_id, channel, destination, subject, message, status, sent_at)
+    VALUES (p_sender_id, v_transaction.id, 'EMAIL', v_sender.email, 'PAYMENT RECEIVED',
+            v_sender.legal_name || ' sent you R$' || p_amount,
+            CASE WHEN p_notification_sent IS NULL THEN 'PENDING'
+                 WHEN p_notification_sent THEN 'SENT'
+                 ELSE 'FAILED' END,
+            CASE WHEN p_notification_sent THEN NOW() END)
+    RETURNING id INTO v_notification_id;
+
+    IF p_notification_sent IS NULL THEN
+        INSERT INTO notification_outbox (notification_id) VALUES (v_notification_id);
+    END IF;
+
+    RETURN NEXT v_transaction;
+END;
+$$;
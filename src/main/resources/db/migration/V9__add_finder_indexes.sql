@@ -0,0 +1,20 @@
+-- Indexes backing the repository finders and their keyset pages, which all order by (created_at, id).
+-- CONCURRENTLY keeps the tables writable while the indexes build; Flyway runs this script outside a transaction.
+
+-- TransactionRepository
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_sender_created_at ON transactions (sender_id, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_recipient_created_at ON transactions (recipient_id, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_status_created_at ON transactions (status, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_created_at ON transactions (created_at, id);
+-- Transfers recorded before authorization stay PENDING only briefly, so this index stays small
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_pending_created_at ON transactions (created_at, id) WHERE status = 'PENDING';
+
+-- NotificationRepository
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_created_at ON notifications (user_id, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_transaction_created_at ON notifications (transaction_id, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_status_created_at ON notifications (status, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_created_at ON notifications (created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_pending_created_at ON notifications (created_at, id) WHERE status = 'PENDING';
+
+-- UserRepository
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at ON users (created_at, id);
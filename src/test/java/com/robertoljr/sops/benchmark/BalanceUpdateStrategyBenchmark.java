@@ -0,0 +1,116 @@
+package com.robertoljr.sops.benchmark;
+
+import com.robertoljr.sops.constant.transaction.BalanceUpdateMode;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.UserRepository;
+import com.robertoljr.sops.service.balance.BalanceUpdateStrategy;
+import com.robertoljr.sops.service.balance.ConditionalBalanceUpdateStrategy;
+import com.robertoljr.sops.service.balance.OptimisticBalanceUpdateStrategy;
+import com.robertoljr.sops.service.balance.PessimisticBalanceUpdateStrategy;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.robertoljr.sops.benchmark.BenchmarkUsers.newUser;
+
+/**
+ * Compares throughput and abort rate of each {@link BalanceUpdateStrategy} when the same number of
+ * workers spread their transfers over 1, 16 or 256 distinct senders. Needs the local PostgreSQL
+ * from application.properties: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BalanceUpdateStrategyBenchmark {
+
+    private static final int WORKERS = 64;
+    private static final int TRANSFERS_PER_RUN = 5_000;
+    private static final int[] SENDER_COUNTS = {1, 16, 256};
+    private static final Money AMOUNT = Money.of("0.01");
+
+    private final Logger logger = LoggerFactory.getLogger(BalanceUpdateStrategyBenchmark.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> senderIds = new ArrayList<>();
+    private final List<Long> recipientIds = new ArrayList<>();
+
+    @BeforeAll
+    void seedUsers() {
+        for (int i = 0; i < 256; i++) {
+            senderIds.add(userRepository.save(newUser(UserType.REGULAR)).getId());
+            recipientIds.add(userRepository.save(newUser(UserType.MERCHANT)).getId());
+        }
+    }
+
+    @AfterAll
+    void deleteUsers() {
+        userRepository.deleteAllById(senderIds);
+        userRepository.deleteAllById(recipientIds);
+    }
+
+    @Test
+    void compareStrategies() throws InterruptedException {
+        List<BalanceUpdateStrategy> strategies = List.of(
+                new PessimisticBalanceUpdateStrategy(entityManager),
+                new OptimisticBalanceUpdateStrategy(userRepository, 5),
+                new ConditionalBalanceUpdateStrategy(userRepository)
+        );
+
+        logger.info(String.format("%-12s %8s %12s %10s", "mode", "senders", "transfers/s", "abort %"));
+        for (BalanceUpdateStrategy strategy : strategies) {
+            for (int senderCount : SENDER_COUNTS) {
+                run(strategy, senderCount);
+            }
+        }
+    }
+
+    private void run(BalanceUpdateStrategy strategy, int senderCount) throws InterruptedException {
+        AtomicLong aborted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(WORKERS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFERS_PER_RUN; i++) {
+            Long senderId = senderIds.get(i % senderCount);
+            Long recipientId = recipientIds.get(ThreadLocalRandom.current().nextInt(recipientIds.size()));
+            executor.execute(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> strategy.transfer(senderId, recipientId, AMOUNT));
+                } catch (RuntimeException ex) {
+                    aborted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        BalanceUpdateMode mode = strategy.mode();
+        logger.info(String.format("%-12s %8d %12.1f %10.2f",
+                mode, senderCount, TRANSFERS_PER_RUN / seconds, 100.0 * aborted.get() / TRANSFERS_PER_RUN));
+    }
+}
@@ -0,0 +1,28 @@
+package com.robertoljr.sops.benchmark;
+
+import com.robertoljr.sops.constant.user.DocumentType;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.money.Money;
+
+import java.util.UUID;
+
+// Users seeded by the benchmarks: unique document number and email, and enough balance for any run
+final class BenchmarkUsers {
+
+    private BenchmarkUsers() {
+    }
+
+    static User newUser(UserType userType) {
+        String suffix = UUID.randomUUID().toString().replace("-", "");
+        User user = new User();
+        user.setLegalName("Benchmark " + userType);
+        user.setDocumentType(userType == UserType.MERCHANT ? DocumentType.CNPJ : DocumentType.CPF);
+        user.setDocumentNumber(suffix);
+        user.setEmail(suffix + "@benchmark.local");
+        user.setPassword("benchmark");
+        user.setUserType(userType);
+        user.setBalance(Money.of("1000000.00"));
+        return user;
+    }
+}
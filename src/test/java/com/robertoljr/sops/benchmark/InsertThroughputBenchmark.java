@@ -0,0 +1,109 @@
+package com.robertoljr.sops.benchmark;
+
+import com.robertoljr.sops.constant.notification.Channel;
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.entity.Notification;
+import com.robertoljr.sops.entity.Transaction;
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.NotificationRepository;
+import com.robertoljr.sops.repository.TransactionRepository;
+import com.robertoljr.sops.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.robertoljr.sops.benchmark.BenchmarkUsers.newUser;
+
+/**
+ * Measures bulk insert throughput of transactions and their notifications through saveAll.
+ * Run it on a commit before and after the switch from IDENTITY to pooled sequences to compare:
+ * {@code mvn test -Pbenchmark -Dtest=InsertThroughputBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InsertThroughputBenchmark {
+
+    private final Logger logger = LoggerFactory.getLogger(InsertThroughputBenchmark.class);
+
+    private static final int ROWS = 20_000;
+    private static final int CHUNK = 500;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User sender;
+    private User recipient;
+
+    @BeforeAll
+    void seedUsers() {
+        sender = userRepository.save(newUser(UserType.REGULAR));
+        recipient = userRepository.save(newUser(UserType.MERCHANT));
+    }
+
+    @AfterAll
+    void deleteUsers() {
+        // Cascades to the benchmark transactions and notifications
+        userRepository.deleteAllById(List.of(sender.getId(), recipient.getId()));
+    }
+
+    @Test
+    void bulkInsertTransactionsAndNotifications() {
+        long start = System.nanoTime();
+        for (int inserted = 0; inserted < ROWS; inserted += CHUNK) {
+            transactionTemplate.executeWithoutResult(status -> insertChunk());
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        logger.info(String.format("Inserted %d transactions + %d notifications in %.2fs: %.1f rows/s",
+                ROWS, ROWS, seconds, 2 * ROWS / seconds));
+    }
+
+    private void insertChunk() {
+        List<Transaction> transactions = new ArrayList<>(CHUNK);
+        for (int i = 0; i < CHUNK; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setSender(sender);
+            transaction.setRecipient(recipient);
+            transaction.setAmount(Money.of("1.00"));
+            transaction.setStatus(Status.SUCCEEDED);
+            transactions.add(transaction);
+        }
+        transactions = transactionRepository.saveAll(transactions);
+
+        List<Notification> notifications = new ArrayList<>(CHUNK);
+        for (Transaction transaction : transactions) {
+            Notification notification = new Notification();
+            notification.setUser(sender);
+            notification.setTransaction(transaction);
+            notification.setChannel(Channel.EMAIL);
+            notification.setDestination(sender.getEmail());
+            notification.setSubject("PAYMENT RECEIVED");
+            notification.setMessage("Benchmark");
+            notification.setStatus(com.robertoljr.sops.constant.notification.Status.SENT);
+            notifications.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+    }
+}
@@ -0,0 +1,140 @@
+package com.robertoljr.sops.benchmark;
+
+import com.robertoljr.sops.SimplifiedOnlinePaymentSystemApplication;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.repository.UserRepository;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.robertoljr.sops.benchmark.BenchmarkUsers.newUser;
+
+/**
+ * Compares platform-thread and virtual-thread request handling while the stub authorizer takes
+ * 200 ms per call. For each mode the application is started on a random port and driven by 50,
+ * 200 and 800 concurrent clients, each sending transfers back to back; past Tomcat's 200 platform
+ * threads requests queue, while virtual threads keep accepting them until the database permits
+ * become the bound. Needs the local PostgreSQL: {@code mvn test -Pbenchmark -Dtest=ThreadModeBenchmark}.
+ */
+@Tag("benchmark")
+class ThreadModeBenchmark {
+
+    private final Logger logger = LoggerFactory.getLogger(ThreadModeBenchmark.class);
+
+    private static final long AUTHORIZER_LATENCY_MS = 200;
+    private static final int[] CONCURRENCY = {50, 200, 800};
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int USERS = 64;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @Test
+    void compareThreadModes() throws InterruptedException {
+        logger.info(String.format("%-9s %12s %12s %10s %10s %10s %8s", "threads", "concurrency", "requests/s", "p50 ms", "p99 ms", "max ms", "errors"));
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                UserRepository userRepository = context.getBean(UserRepository.class);
+                List<Long> senderIds = seed(userRepository, UserType.REGULAR);
+                List<Long> recipientIds = seed(userRepository, UserType.MERCHANT);
+                try {
+                    for (int concurrency : CONCURRENCY) {
+                        run(virtual ? "virtual" : "platform", concurrency, baseUrl, senderIds, recipientIds);
+                    }
+                } finally {
+                    // Cascades to the benchmark transactions and notifications
+                    userRepository.deleteAllById(senderIds);
+                    userRepository.deleteAllById(recipientIds);
+                }
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        // Command-line arguments, so they win over the test profile's zero-latency stub
+        return new SpringApplicationBuilder(SimplifiedOnlinePaymentSystemApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--sops.stub.authorizer.latency.distribution=FIXED",
+                "--sops.stub.authorizer.latency.median-ms=" + AUTHORIZER_LATENCY_MS);
+    }
+
+    private void run(String mode, int concurrency, String baseUrl, List<Long> senderIds, List<Long> recipientIds) throws InterruptedException {
+        Recorder recorder = new Recorder(3);
+        AtomicLong errors = new AtomicLong();
+
+        long start = System.nanoTime();
+        // Virtual client threads, so the client side is never the bottleneck
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < concurrency; client++) {
+                clients.execute(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        long sent = System.nanoTime();
+                        boolean ok = transfer(baseUrl, senderIds, recipientIds);
+                        recorder.recordValue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent));
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        Histogram latencies = recorder.getIntervalHistogram();
+
+        logger.info(String.format("%-9s %12d %12.1f %10d %10d %10d %8d", mode, concurrency,
+                latencies.getTotalCount() / seconds,
+                latencies.getValueAtPercentile(50),
+                latencies.getValueAtPercentile(99),
+                latencies.getMaxValue(),
+                errors.get()));
+    }
+
+    private boolean transfer(String baseUrl, List<Long> senderIds, List<Long> recipientIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = "{\"senderId\":" + senderIds.get(random.nextInt(senderIds.size())) + "," +
+                "\"recipientId\":" + recipientIds.get(random.nextInt(recipientIds.size())) + "," +
+                "\"amount\":0.01," +
+                "\"description\":\"Thread mode benchmark\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/transactions"))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 201;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private List<Long> seed(UserRepository userRepository, UserType userType) {
+        List<Long> ids = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            ids.add(userRepository.save(newUser(userType)).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,72 @@
+package com.robertoljr.sops.benchmark.jmh;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.robertoljr.sops.exception.ExceptionResponse;
+import com.robertoljr.sops.exception.handler.CustomEntityResponseHandler;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a rejected transfer: building the exception and turning it into the error response in
+ * CustomEntityResponseHandler, including logging its stack trace. Log output is formatted as usual
+ * but discarded. Stacks here are shallower than under Spring MVC, so real costs are higher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExceptionHandlingBenchmark {
+
+    private static final String MESSAGE = "Sender does not have enough balance to make the transfer.";
+
+    private final CustomEntityResponseHandler handler = new CustomEntityResponseHandler();
+    private final WebRequest request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/v1/transactions"));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level [%thread] %logger{39} : %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+    }
+
+    @Benchmark
+    public TransactionCreationException construct() {
+        return new TransactionCreationException(MESSAGE);
+    }
+
+    @Benchmark
+    public ResponseEntity<ExceptionResponse> constructAndHandle() {
+        return handler.handleTransactionCreationExceptions(new TransactionCreationException(MESSAGE), request);
+    }
+}
@@ -0,0 +1,76 @@
+package com.robertoljr.sops.benchmark.jmh;
+
+import com.robertoljr.sops.constant.notification.Channel;
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.constant.user.DocumentType;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.entity.Notification;
+import com.robertoljr.sops.entity.Transaction;
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.money.Money;
+
+import java.time.Instant;
+
+// Detached entities and DTOs shaped like the ones the API handles
+final class Fixtures {
+
+    static final Instant NOW = Instant.parse("2025-01-15T12:00:00Z");
+
+    private Fixtures() {
+    }
+
+    static User user(Long id, UserType userType) {
+        User user = new User();
+        user.setId(id);
+        user.setLegalName("Benchmark User " + id);
+        user.setDocumentType(userType == UserType.MERCHANT ? DocumentType.CNPJ : DocumentType.CPF);
+        user.setDocumentNumber(String.format("%011d", id));
+        user.setEmail("user" + id + "@benchmark.local");
+        user.setPhoneNumber("+5511999990000");
+        user.setPassword("benchmark");
+        user.setBalance(Money.of("1000.00"));
+        user.setUserType(userType);
+        user.setCreatedAt(NOW);
+        user.setUpdatedAt(NOW);
+        user.setVersion(0L);
+        return user;
+    }
+
+    static Transaction transaction(Long id, User sender, User recipient, Status status) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setSender(sender);
+        transaction.setRecipient(recipient);
+        transaction.setAmount(Money.ofCents(1050 + id));
+        transaction.setStatus(status);
+        transaction.setDescription("Payment #" + id);
+        transaction.setCreatedAt(NOW.plusMillis(id));
+        transaction.setUpdatedAt(NOW.plusMillis(id));
+        return transaction;
+    }
+
+    static CreateTransactionDTO createTransactionDTO(Long senderId, Long recipientId) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setSenderId(senderId);
+        dto.setRecipientId(recipientId);
+        dto.setAmount(Money.of("10.50"));
+        dto.setDescription("Benchmark payment");
+        return dto;
+    }
+
+    static Notification notification(Long id, User user, Transaction transaction) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUser(user);
+        notification.setTransaction(transaction);
+        notification.setChannel(Channel.EMAIL);
+        notification.setDestination(user.getEmail());
+        notification.setSubject("PAYMENT RECEIVED");
+        notification.setMessage(user.getLegalName() + " sent you R$" + transaction.getAmount());
+        notification.setStatus(com.robertoljr.sops.constant.notification.Status.SENT);
+        notification.setCreatedAt(NOW);
+        notification.setSentAt(NOW);
+        return notification;
+    }
+}
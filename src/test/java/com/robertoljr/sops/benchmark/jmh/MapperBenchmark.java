@@ -0,0 +1,100 @@
+package com.robertoljr.sops.benchmark.jmh;
+
+import com.robertoljr.sops.constant.notification.Channel;
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.constant.user.DocumentType;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.dto.notification.NotificationCreateDTO;
+import com.robertoljr.sops.dto.notification.NotificationResponseDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.dto.user.UserCreateDTO;
+import com.robertoljr.sops.dto.user.UserResponseDTO;
+import com.robertoljr.sops.entity.Notification;
+import com.robertoljr.sops.entity.Transaction;
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.mapper.NotificationMapper;
+import com.robertoljr.sops.mapper.TransactionMapper;
+import com.robertoljr.sops.mapper.UserMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO conversions done by the MapStruct mappers on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private final TransactionMapper transactionMapper = Mappers.getMapper(TransactionMapper.class);
+    private final UserMapper userMapper = Mappers.getMapper(UserMapper.class);
+    private final NotificationMapper notificationMapper = Mappers.getMapper(NotificationMapper.class);
+
+    private Transaction transaction;
+    private CreateTransactionDTO createTransactionDTO;
+    private User user;
+    private UserCreateDTO userCreateDTO;
+    private Notification notification;
+    private NotificationCreateDTO notificationCreateDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User sender = Fixtures.user(1L, UserType.REGULAR);
+        User recipient = Fixtures.user(2L, UserType.MERCHANT);
+        transaction = Fixtures.transaction(10L, sender, recipient, Status.SUCCEEDED);
+        createTransactionDTO = Fixtures.createTransactionDTO(1L, 2L);
+        user = sender;
+
+        userCreateDTO = new UserCreateDTO();
+        userCreateDTO.setLegalName(sender.getLegalName());
+        userCreateDTO.setDocumentType(DocumentType.CPF);
+        userCreateDTO.setDocumentNumber(sender.getDocumentNumber());
+        userCreateDTO.setEmail(sender.getEmail());
+        userCreateDTO.setPassword(sender.getPassword());
+        userCreateDTO.setUserType(UserType.REGULAR);
+
+        notification = Fixtures.notification(100L, sender, transaction);
+        notificationCreateDTO = new NotificationCreateDTO(1L, 10L, Channel.EMAIL,
+                sender.getEmail(), notification.getSubject(), notification.getMessage());
+    }
+
+    @Benchmark
+    public ResponseTransactionDTO transactionToResponseDTO() {
+        return transactionMapper.toResponseDTO(transaction);
+    }
+
+    @Benchmark
+    public Transaction transactionToEntity() {
+        return transactionMapper.toEntity(createTransactionDTO);
+    }
+
+    @Benchmark
+    public UserResponseDTO userToResponseDTO() {
+        return userMapper.toResponseDTO(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.toEntity(userCreateDTO);
+    }
+
+    @Benchmark
+    public NotificationResponseDTO notificationToResponseDTO() {
+        return notificationMapper.toResponseDTO(notification);
+    }
+
+    @Benchmark
+    public Notification notificationToEntity() {
+        return notificationMapper.toEntity(notificationCreateDTO);
+    }
+}
@@ -0,0 +1,79 @@
+package com.robertoljr.sops.benchmark.jmh;
+
+import com.robertoljr.sops.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the balance check, debit and credit of a transfer done with BigDecimal (as before) and
+ * with {@link Money}. Compare gc.alloc.rate.norm, the bytes allocated per transfer, next to the
+ * throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyArithmeticBenchmark {
+
+    private static final int ACCOUNTS = 1024;
+
+    private BigDecimal[] decimalBalances;
+    private BigDecimal[] decimalAmounts;
+    private Money[] moneyBalances;
+    private Money[] moneyAmounts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        decimalBalances = new BigDecimal[ACCOUNTS];
+        decimalAmounts = new BigDecimal[ACCOUNTS];
+        moneyBalances = new Money[ACCOUNTS];
+        moneyAmounts = new Money[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            long balance = random.nextLong(1_000_000_00L, 10_000_000_00L);
+            long amount = random.nextLong(1, 10_000_00L);
+            decimalBalances[i] = BigDecimal.valueOf(balance, 2);
+            decimalAmounts[i] = BigDecimal.valueOf(amount, 2);
+            moneyBalances[i] = Money.ofCents(balance);
+            moneyAmounts[i] = Money.ofCents(amount);
+        }
+    }
+
+    @Benchmark
+    public void bigDecimalTransfer(Blackhole blackhole) {
+        int sender = next++ & (ACCOUNTS - 1);
+        int recipient = (sender + 1) & (ACCOUNTS - 1);
+        BigDecimal amount = decimalAmounts[sender];
+        if (decimalBalances[sender].compareTo(amount) < 0) {
+            blackhole.consume(false);
+            return;
+        }
+        // Keeps balances from drifting so every iteration takes the same branch
+        decimalBalances[sender] = decimalBalances[sender].subtract(amount).add(amount);
+        blackhole.consume(decimalBalances[recipient].add(amount));
+    }
+
+    @Benchmark
+    public void moneyTransfer(Blackhole blackhole) {
+        int sender = next++ & (ACCOUNTS - 1);
+        int recipient = (sender + 1) & (ACCOUNTS - 1);
+        Money amount = moneyAmounts[sender];
+        if (moneyBalances[sender].isLessThan(amount)) {
+            blackhole.consume(false);
+            return;
+        }
+        moneyBalances[sender] = moneyBalances[sender].minus(amount).plus(amount);
+        blackhole.consume(moneyBalances[recipient].plus(amount));
+    }
+}
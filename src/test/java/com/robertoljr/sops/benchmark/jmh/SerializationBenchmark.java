@@ -0,0 +1,70 @@
+package com.robertoljr.sops.benchmark.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.mapper.TransactionMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a page of ResponseTransactionDTO in each format the API negotiates (see WebConfig), with
+ * mappers configured the way Spring's message converters build them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+    private final ObjectMapper yamlMapper = Jackson2ObjectMapperBuilder.json().factory(new YAMLFactory()).build();
+
+    private List<ResponseTransactionDTO> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TransactionMapper transactionMapper = Mappers.getMapper(TransactionMapper.class);
+        User sender = Fixtures.user(1L, UserType.REGULAR);
+        User recipient = Fixtures.user(2L, UserType.MERCHANT);
+        page = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            page.add(transactionMapper.toResponseDTO(Fixtures.transaction(id, sender, recipient, Status.SUCCEEDED)));
+        }
+    }
+
+    @Benchmark
+    public byte[] json() throws JsonProcessingException {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] xml() throws JsonProcessingException {
+        return xmlMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] yaml() throws JsonProcessingException {
+        return yamlMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,50 @@
+package com.robertoljr.sops.benchmark.jmh;
+
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.service.validation.TransferViolation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The transfer rules TransactionServiceImpl checks before touching balances, for an allowed
+ * transfer and for each way it can be rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransferValidationBenchmark {
+
+    // Non-final so the JIT cannot fold the checks into constants
+    private Long senderId = 1L;
+    private Long recipientId = 2L;
+    private Money balance = Money.of("1000.00");
+    private Money amount = Money.of("10.50");
+    private Money largeAmount = Money.of("1000.01");
+
+    @Benchmark
+    public TransferViolation allowed() {
+        return TransferViolation.check(UserType.REGULAR, senderId, recipientId, balance, amount);
+    }
+
+    @Benchmark
+    public TransferViolation merchantSender() {
+        return TransferViolation.check(UserType.MERCHANT, senderId, recipientId, balance, amount);
+    }
+
+    @Benchmark
+    public TransferViolation sameUser() {
+        return TransferViolation.check(UserType.REGULAR, senderId, senderId, balance, amount);
+    }
+
+    @Benchmark
+    public TransferViolation insufficientBalance() {
+        return TransferViolation.check(UserType.REGULAR, senderId, recipientId, balance, largeAmount);
+    }
+}
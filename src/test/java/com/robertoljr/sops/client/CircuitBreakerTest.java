@@ -0,0 +1,98 @@
+package com.robertoljr.sops.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofHours(1));
+
+        fail(circuitBreaker, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        fail(circuitBreaker, 1);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofHours(1));
+
+        fail(circuitBreaker, 2);
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+        fail(circuitBreaker, 2);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void letsASingleProbeThroughOnceTheOpenPeriodElapses() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ZERO);
+        fail(circuitBreaker, 1);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void successfulProbeClosesTheCircuit() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ZERO);
+        fail(circuitBreaker, 1);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(5, Duration.ofMillis(200));
+        fail(circuitBreaker, 5);
+        assertFalse(circuitBreaker.tryAcquire());
+
+        awaitProbe(circuitBreaker);
+        circuitBreaker.onFailure();
+
+        // A single failed probe is enough, regardless of the threshold
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void releasedProbeLetsTheNextCallProbe() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ZERO);
+        fail(circuitBreaker, 1);
+        assertTrue(circuitBreaker.tryAcquire());
+
+        circuitBreaker.release();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    private static void fail(CircuitBreaker circuitBreaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private static void awaitProbe(CircuitBreaker circuitBreaker) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!circuitBreaker.tryAcquire()) {
+            assertTrue(System.nanoTime() < deadline, "the circuit never let a probe through");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.robertoljr.sops.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the REST API. Requests start at the configured arrival rate no
+ * matter how long earlier ones take, as production traffic does, and each response time is measured
+ * from the moment its request was due (see {@link OperationStats}).
+ * <p>
+ * It seeds its own REGULAR senders and MERCHANT recipients, picks them with a Zipf skew so a few
+ * hot accounts take most transfers, and prints latency percentiles per operation at the end, plus
+ * HdrHistogram .hgrm files for plotting. Against a local API and PostgreSQL, with the "bench" profile
+ * serving the authorizer and notifier from the embedded stub:
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.profiles=bench -Dspring-boot.run.useTestClasspath=true
+ * mvn test -Ploadtest -Dloadtest.rate=500
+ * </pre>
+ * See {@link LoadTestSettings} for every loadtest.* property.
+ */
+public final class LoadGenerator {
+
+    private static final String SEED_BALANCE = "1000000.00";
+    private static final int SEED_CONCURRENCY = 32;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Ring of recently created transaction ids for FIND_TRANSACTION_BY_ID
+    private final AtomicLongArray recentTransactionIds = new AtomicLongArray(4096);
+    private final AtomicLong createdTransactions = new AtomicLong();
+
+    private final List<Long> senderIds = new ArrayList<>();
+    private final List<String> senderEmails = new ArrayList<>();
+    private final List<Long> merchantIds = new ArrayList<>();
+    private final ZipfSampler senderSampler;
+    private final ZipfSampler merchantSampler;
+
+    private LoadGenerator(LoadTestSettings settings) {
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.senderSampler = new ZipfSampler(settings.regularUsers(), settings.skew());
+        this.merchantSampler = new ZipfSampler(settings.merchants(), settings.skew());
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator generator = new LoadGenerator(LoadTestSettings.fromSystemProperties());
+        generator.seedUsers();
+        generator.run();
+        generator.report(System.out);
+    }
+
+    private void seedUsers() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        List<Future<JsonNode>> regulars = new ArrayList<>();
+        List<Future<JsonNode>> merchants = new ArrayList<>();
+        for (int i = 0; i < settings.regularUsers(); i++) {
+            regulars.add(submitSeed(permits, newUser(runId, "REGULAR", "CPF", i)));
+        }
+        for (int i = 0; i < settings.merchants(); i++) {
+            merchants.add(submitSeed(permits, newUser(runId, "MERCHANT", "CNPJ", i)));
+        }
+        for (Future<JsonNode> regular : regulars) {
+            JsonNode user = regular.get();
+            senderIds.add(user.path("id").asLong());
+            senderEmails.add(user.path("email").asText());
+        }
+        for (Future<JsonNode> merchant : merchants) {
+            merchantIds.add(merchant.get().path("id").asLong());
+        }
+        System.out.printf("Seeded %d REGULAR and %d MERCHANT users (run %s)%n", senderIds.size(), merchantIds.size(), runId);
+    }
+
+    private Future<JsonNode> submitSeed(Semaphore permits, String body) {
+        return executor.submit(() -> {
+            permits.acquire();
+            try {
+                HttpResponse<String> response = httpClient.send(post("/api/v1/users", body), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 201 && response.statusCode() != 200) {
+                    throw new IllegalStateException("Seeding a user failed with " + response.statusCode() + ": " + response.body());
+                }
+                return objectMapper.readTree(response.body());
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private String newUser(String runId, String userType, String documentType, int index) {
+        String suffix = userType.toLowerCase() + index + "." + runId;
+        return "{\"legalName\":\"Load " + userType + " " + index + "\"," +
+                "\"documentType\":\"" + documentType + "\"," +
+                "\"documentNumber\":\"" + runId + userType.charAt(0) + index + "\"," +
+                "\"email\":\"" + suffix + "@loadtest.local\"," +
+                "\"password\":\"loadtest\"," +
+                "\"userType\":\"" + userType + "\"," +
+                "\"balance\":" + SEED_BALANCE + "}";
+    }
+
+    private void run() throws InterruptedException {
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long recordFrom = start + settings.warmup().toNanos();
+        long end = recordFrom + settings.duration().toNanos();
+        System.out.printf("Running %.0f req/s for %ds after a %ds warmup%n",
+                settings.rate(), settings.duration().toSeconds(), settings.warmup().toSeconds());
+
+        SplittableRandom random = new SplittableRandom();
+        double offsetNanos = 0;
+        while (true) {
+            offsetNanos += settings.poissonArrivals() ? -Math.log(1 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+            long intendedStart = start + (long) offsetNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            waitUntil(intendedStart);
+
+            Operation operation = settings.mix().next(random);
+            boolean recorded = intendedStart >= recordFrom;
+            if (inFlight.incrementAndGet() > settings.maxInFlight()) {
+                inFlight.decrementAndGet();
+                if (recorded) {
+                    stats.get(operation).recordOverloaded();
+                }
+                continue;
+            }
+            SplittableRandom requestRandom = random.split();
+            executor.execute(() -> {
+                try {
+                    execute(operation, intendedStart, recorded, requestRandom);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        executor.shutdown();
+        if (!executor.awaitTermination(REQUEST_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    // The scheduler never skips a due arrival: if it falls behind, requests fire late but keep their due time
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void execute(Operation operation, long intendedStart, boolean recorded, SplittableRandom random) {
+        HttpRequest request = request(operation, random);
+        if (request == null) {
+            return;
+        }
+        long actualStart = System.nanoTime();
+        int status;
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            if (operation == Operation.CREATE_TRANSACTION && status / 100 == 2) {
+                rememberTransaction(response.body());
+            }
+        } catch (IOException ex) {
+            status = -1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long now = System.nanoTime();
+        if (recorded) {
+            stats.get(operation).record(now - intendedStart, now - actualStart, status);
+        }
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random) {
+        int sender = senderSampler.next(random);
+        return switch (operation) {
+            case CREATE_TRANSACTION -> post("/api/v1/transactions",
+                    "{\"senderId\":" + senderIds.get(sender) + "," +
+                            "\"recipientId\":" + merchantIds.get(merchantSampler.next(random)) + "," +
+                            "\"amount\":" + random.nextInt(1, 50) + "." + String.format("%02d", random.nextInt(100)) + "," +
+                            "\"description\":\"Load test\"}");
+            case FIND_TRANSACTION_BY_ID -> {
+                long created = createdTransactions.get();
+                if (created == 0) {
+                    // Nothing to look up until the first transfer succeeds
+                    yield null;
+                }
+                int slot = (int) (random.nextLong(Math.min(created, recentTransactionIds.length())));
+                yield get("/api/v1/transactions/" + recentTransactionIds.get(slot));
+            }
+            case FIND_NOTIFICATIONS_BY_USER_ID -> get("/api/v1/notifications/userId/" + senderIds.get(sender) + "?size=20");
+            case FIND_USER_BY_ID -> get("/api/v1/users/" + senderIds.get(sender));
+            case FIND_USER_BY_EMAIL -> get("/api/v1/users/email/" + URLEncoder.encode(senderEmails.get(sender), StandardCharsets.UTF_8));
+        };
+    }
+
+    private void rememberTransaction(String body) throws IOException {
+        long id = objectMapper.readTree(body).path("id").asLong();
+        long index = createdTransactions.getAndIncrement();
+        recentTransactionIds.set((int) (index % recentTransactionIds.length()), id);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(settings.baseUrl() + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(settings.baseUrl() + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private void report(PrintStream out) throws IOException {
+        Files.createDirectories(settings.outputDir());
+        double seconds = settings.duration().toMillis() / 1000.0;
+
+        out.printf("%n%-30s %8s %9s %9s %9s %9s %9s %9s %12s%n",
+                "operation (ms)", "count", "req/s", "p50", "p90", "p99", "p99.9", "max", "service p99");
+        for (Operation operation : settings.mix().operations()) {
+            OperationStats operationStats = stats.get(operation);
+            Histogram response = operationStats.responseTimeHistogram();
+            Histogram service = operationStats.serviceTimeHistogram();
+            out.printf("%-30s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                    operation, response.getTotalCount(), response.getTotalCount() / seconds,
+                    millis(response, 50), millis(response, 90), millis(response, 99), millis(response, 99.9),
+                    response.getMaxValue() / 1000.0, millis(service, 99));
+            out.printf("%-30s statuses %s, overloaded %d%n", "", operationStats.statusCounts(), operationStats.overloaded());
+
+            writeDistribution(operation.name().toLowerCase() + ".response.hgrm", response);
+            writeDistribution(operation.name().toLowerCase() + ".service.hgrm", service);
+        }
+        out.printf("%nPercentile distributions written to %s%n", settings.outputDir().toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private void writeDistribution(String fileName, Histogram histogram) throws IOException {
+        try (PrintStream file = new PrintStream(Files.newOutputStream(settings.outputDir().resolve(fileName)))) {
+            // Recorded in microseconds, written in milliseconds
+            histogram.outputPercentileDistribution(file, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.robertoljr.sops.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test parameters, read from loadtest.* system properties (e.g. -Dloadtest.rate=500).
+ *
+ * @param baseUrl          root of the running API
+ * @param rate             requests started per second, whatever the response times (open model)
+ * @param poissonArrivals  exponential gaps between requests instead of a fixed interval
+ * @param warmup           initial period whose requests are not recorded
+ * @param duration         recorded period after the warmup
+ * @param regularUsers     REGULAR users seeded as senders
+ * @param merchants        MERCHANT users seeded as recipients
+ * @param skew             Zipf exponent for picking senders and merchants; 0 is uniform
+ * @param mix              relative weight of each {@link Operation}
+ * @param maxInFlight      requests allowed in flight before new arrivals count as overloaded
+ * @param outputDir        where the .hgrm percentile distributions are written
+ */
+record LoadTestSettings(
+        String baseUrl,
+        double rate,
+        boolean poissonArrivals,
+        Duration warmup,
+        Duration duration,
+        int regularUsers,
+        int merchants,
+        double skew,
+        OperationMix mix,
+        int maxInFlight,
+        Path outputDir
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                property("base-url", "http://localhost:8080"),
+                Double.parseDouble(property("rate", "200")),
+                property("arrivals", "POISSON").equalsIgnoreCase("POISSON"),
+                Duration.ofSeconds(Long.parseLong(property("warmup-s", "15"))),
+                Duration.ofSeconds(Long.parseLong(property("duration-s", "60"))),
+                Integer.parseInt(property("regular-users", "1000")),
+                Integer.parseInt(property("merchants", "50")),
+                Double.parseDouble(property("skew", "1.1")),
+                OperationMix.parse(property("mix",
+                        "CREATE_TRANSACTION:40,FIND_TRANSACTION_BY_ID:20,FIND_NOTIFICATIONS_BY_USER_ID:15,"
+                                + "FIND_USER_BY_ID:20,FIND_USER_BY_EMAIL:5")),
+                Integer.parseInt(property("max-in-flight", "10000")),
+                Path.of(property("output-dir", "target/loadtest"))
+        );
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
@@ -0,0 +1,10 @@
+package com.robertoljr.sops.loadtest;
+
+// The API calls the load generator mixes, by name in loadtest.mix
+enum Operation {
+    CREATE_TRANSACTION,
+    FIND_TRANSACTION_BY_ID,
+    FIND_NOTIFICATIONS_BY_USER_ID,
+    FIND_USER_BY_ID,
+    FIND_USER_BY_EMAIL
+}
@@ -0,0 +1,55 @@
+package com.robertoljr.sops.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Picks the next operation according to relative weights, e.g. "CREATE_TRANSACTION:40,FIND_USER_BY_ID:60"
+final class OperationMix {
+
+    private final Operation[] operations;
+    private final double[] cumulative;
+
+    private OperationMix(Map<Operation, Double> weights) {
+        operations = weights.keySet().toArray(Operation[]::new);
+        cumulative = new double[operations.length];
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]) / total;
+            cumulative[i] = sum;
+        }
+    }
+
+    static OperationMix parse(String mix) {
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected OPERATION:weight, got: " + entry);
+            }
+            double weight = Double.parseDouble(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty: " + mix);
+        }
+        return new OperationMix(weights);
+    }
+
+    Operation next(SplittableRandom random) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (draw < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    Operation[] operations() {
+        return operations.clone();
+    }
+}
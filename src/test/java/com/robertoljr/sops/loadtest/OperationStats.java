@@ -0,0 +1,53 @@
+package com.robertoljr.sops.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one {@link Operation}, in microseconds. Response time runs from the
+ * moment the request was scheduled to start, so time spent waiting behind a slow system counts
+ * (coordinated-omission correction); service time runs from when it was actually sent.
+ */
+final class OperationStats {
+
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder overloaded = new LongAdder();
+
+    void record(long responseNanos, long serviceNanos, int status) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(responseNanos));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(serviceNanos));
+        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    // The arrival was not sent because too many requests were already in flight
+    void recordOverloaded() {
+        overloaded.increment();
+    }
+
+    Histogram responseTimeHistogram() {
+        return responseTime.getIntervalHistogram();
+    }
+
+    Histogram serviceTimeHistogram() {
+        return serviceTime.getIntervalHistogram();
+    }
+
+    // Status code -> count; -1 is a request that got no HTTP response at all
+    Map<Integer, Long> statusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    long overloaded() {
+        return overloaded.sum();
+    }
+}
@@ -0,0 +1,35 @@
+package com.robertoljr.sops.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws indexes in [0, n) where index k is chosen with probability proportional to 1 / (k + 1)^s,
+ * so a few low indexes (hot senders or merchants) get most of the traffic. An exponent of 0 is
+ * uniform; around 1 matches the usual long-tailed account activity.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    int next(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // A miss returns -(insertion point) - 1; the insertion point is the drawn index
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+}
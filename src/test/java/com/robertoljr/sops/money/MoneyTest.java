@@ -0,0 +1,55 @@
+package com.robertoljr.sops.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void keepsTwoDecimalPlacesAsCents() {
+        assertEquals(1050, Money.of("10.50").cents());
+        assertEquals(1050, Money.of("10.5").cents());
+        assertEquals(1000, Money.of("10").cents());
+        assertEquals(1050, Money.of("10.5000").cents());
+        assertEquals(-1, Money.of("-0.01").cents());
+        assertEquals(new BigDecimal("10.50"), Money.ofCents(1050).toBigDecimal());
+        assertEquals("0.05", Money.ofCents(5).toString());
+    }
+
+    @Test
+    void rejectsSubCentAmountsInsteadOfRounding() {
+        assertThrows(ArithmeticException.class, () -> Money.of("10.005"));
+        assertThrows(ArithmeticException.class, () -> Money.of("0.001"));
+    }
+
+    @Test
+    void rejectsAmountsBeyondLongCents() {
+        assertEquals(Long.MAX_VALUE, Money.of("92233720368547758.07").cents());
+        assertThrows(ArithmeticException.class, () -> Money.of("92233720368547758.08"));
+    }
+
+    @Test
+    void throwsOnOverflowInsteadOfWrapping() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+        Money min = Money.ofCents(Long.MIN_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> min.minus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, min::negate);
+        assertEquals(Money.ofCents(Long.MAX_VALUE - 1), max.minus(Money.ofCents(1)));
+    }
+
+    @Test
+    void comparesByCents() {
+        assertEquals(Money.of("1.10"), Money.of("1.1"));
+        assertEquals(Money.of("1.10").hashCode(), Money.of("1.1").hashCode());
+        assertSame(Money.ZERO, Money.of("0.00"));
+        assertTrue(Money.of("0.99").isLessThan(Money.of("1.00")));
+        assertTrue(Money.of("0.01").isPositive());
+        assertTrue(Money.of("-0.01").isNegative());
+        assertFalse(Money.ZERO.isPositive() || Money.ZERO.isNegative());
+    }
+}
@@ -0,0 +1,58 @@
+package com.robertoljr.sops.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MoneyTypeTest {
+
+    private final MoneyType moneyType = new MoneyType();
+
+    @Test
+    void readsNumericColumns() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getBigDecimal(1)).thenReturn(new BigDecimal("123.40"));
+        when(resultSet.getBigDecimal(2)).thenReturn(null);
+
+        assertEquals(Money.ofCents(12340), moneyType.nullSafeGet(resultSet, 1, null, null));
+        assertNull(moneyType.nullSafeGet(resultSet, 2, null, null));
+    }
+
+    @Test
+    void rejectsColumnValuesWithMoreThanTwoDecimalPlaces() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getBigDecimal(1)).thenReturn(new BigDecimal("1.001"));
+
+        assertThrows(ArithmeticException.class, () -> moneyType.nullSafeGet(resultSet, 1, null, null));
+    }
+
+    @Test
+    void writesNumericColumnsWithScaleTwo() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+
+        moneyType.nullSafeSet(statement, Money.ofCents(5), 1, null);
+        moneyType.nullSafeSet(statement, null, 2, null);
+
+        verify(statement).setBigDecimal(1, new BigDecimal("0.05"));
+        verify(statement).setNull(2, Types.NUMERIC);
+    }
+
+    @Test
+    void cachesAsCents() {
+        Money amount = Money.of("99.99");
+
+        assertEquals(9999L, moneyType.disassemble(amount));
+        assertEquals(amount, moneyType.assemble(moneyType.disassemble(amount), null));
+        assertNull(moneyType.disassemble(null));
+        assertNull(moneyType.assemble(null, null));
+    }
+}
@@ -0,0 +1,175 @@
+package com.robertoljr.sops.repository;
+
+import com.robertoljr.sops.constant.transaction.Status;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on the SQL that each repository finder actually generates and fails if the plan
+ * falls back to a sequential scan. Sequential scans are disabled for the EXPLAIN, so the planner
+ * only picks one when no index can serve the query.
+ * <p>
+ * Needs the local PostgreSQL from application.properties, version 16 or later for EXPLAIN (GENERIC_PLAN),
+ * so it is tagged "postgres" and left out of the default run: {@code mvn test -Ppostgres}.
+ */
+@Tag("postgres")
+@SpringBootTest
+// The simple query protocol, so the driver sends EXPLAIN (GENERIC_PLAN) with its $n placeholders unbound
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.robertoljr.sops.repository.RecordingStatementInspector",
+        "spring.datasource.hikari.data-source-properties.preferQueryMode=simple"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FinderQueryPlanTest {
+
+    private static final String SEED_DOMAIN = "@plan.local";
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Instant start = Instant.now().minus(30, ChronoUnit.DAYS);
+    private final Instant end = Instant.now();
+
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // The seeded rows reach back into the previous month, which may predate the partitions V10 created
+            jdbcTemplate.queryForObject("SELECT create_monthly_partitions('transactions', (CURRENT_DATE - 31), 2)", Integer.class);
+            jdbcTemplate.queryForObject("SELECT create_monthly_partitions('notifications', (CURRENT_DATE - 31), 2)", Integer.class);
+            jdbcTemplate.update("""
+                    INSERT INTO users (legal_name, document_type, document_number, email, password, balance, user_type)
+                    SELECT 'Plan ' || g, 'CPF', 'plan-' || g, 'plan-' || g || ?, 'plan', 1000, 'REGULAR'
+                    FROM generate_series(1, 200) g
+                    """, SEED_DOMAIN);
+            jdbcTemplate.update("""
+                    INSERT INTO transactions (sender_id, recipient_id, amount, status, created_at, updated_at)
+                    SELECT s.id, r.id, 1.00, (ARRAY['PENDING', 'SUCCEEDED', 'FAILED'])[1 + g % 3],
+                           NOW() - g * INTERVAL '1 minute', NOW()
+                    FROM generate_series(1, 20000) g
+                    JOIN users s ON s.email = 'plan-' || (1 + g % 200) || ?
+                    JOIN users r ON r.email = 'plan-' || (1 + (g + 1) % 200) || ?
+                    """, SEED_DOMAIN, SEED_DOMAIN);
+            jdbcTemplate.update("""
+                    INSERT INTO notifications (user_id, transaction_id, channel, destination, message, status, created_at)
+                    SELECT t.recipient_id, t.id, 'EMAIL', 'plan', 'plan', 'SENT', t.created_at
+                    FROM transactions t JOIN users u ON u.id = t.sender_id
+                    WHERE u.email LIKE ?
+                    """, "%" + SEED_DOMAIN);
+        });
+        // Connections do not auto-commit, so the statistics are only kept if this transaction commits
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ANALYZE users");
+            jdbcTemplate.execute("ANALYZE transactions");
+            jdbcTemplate.execute("ANALYZE notifications");
+        });
+    }
+
+    @AfterAll
+    void deleteSeed() {
+        // Notifications go first so the transaction cascade never has to null out their transaction_id
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM notifications WHERE user_id IN (SELECT id FROM users WHERE email LIKE ?)", "%" + SEED_DOMAIN);
+            jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "%" + SEED_DOMAIN);
+        });
+    }
+
+    @Test
+    void transactionFinders() {
+        assertNoSeqScan(() -> transactionRepository.findBySenderId(1L));
+        assertNoSeqScan(() -> transactionRepository.findByRecipientId(1L));
+        assertNoSeqScan(() -> transactionRepository.findByStatus(Status.PENDING));
+        assertNoSeqScan(() -> transactionRepository.findByCreatedAtBetween(start, end));
+    }
+
+    @Test
+    void transactionPages() {
+        assertNoSeqScan(() -> transactionRepository.findPage(start, 0L, Limit.of(51)));
+        assertNoSeqScan(() -> transactionRepository.findPageBySenderId(1L, start, 0L, Limit.of(51)));
+        assertNoSeqScan(() -> transactionRepository.findPageByRecipientId(1L, start, 0L, Limit.of(51)));
+        assertNoSeqScan(() -> transactionRepository.findPageByStatus(Status.PENDING, start, 0L, Limit.of(51)));
+        assertNoSeqScan(() -> transactionRepository.findPageByCreatedAtBetween(start, end, start, 0L, Limit.of(51)));
+    }
+
+    @Test
+    void notificationFinders() {
+        assertNoSeqScan(() -> notificationRepository.findByUserId(1L));
+        assertNoSeqScan(() -> notificationRepository.findByTransactionId(1L));
+        assertNoSeqScan(() -> notificationRepository.findByStatus(com.robertoljr.sops.constant.notification.Status.PENDING));
+        assertNoSeqScan(() -> notificationRepository.findByCreatedAtBetween(start, end));
+    }
+
+    @Test
+    void notificationPages() {
+        assertNoSeqScan(() -> notificationRepository.findPage(start, 0L, Limit.of(51)));
+        assertNoSeqScan(() -> notificationRepository.findPageByUserId(1L, start, 0L, Limit.of(51)));
+        assertNoSeqScan(() -> notificationRepository.findPageByTransactionId(1L, start, 0L, Limit.of(51)));
+        assertNoSeqScan(() -> notificationRepository.findPageByStatus(com.robertoljr.sops.constant.notification.Status.PENDING, start, 0L, Limit.of(51)));
+        assertNoSeqScan(() -> notificationRepository.findPageByCreatedAtBetween(start, end, start, 0L, Limit.of(51)));
+    }
+
+    @Test
+    void userFinders() {
+        assertNoSeqScan(() -> userRepository.findByEmail("plan-1" + SEED_DOMAIN));
+        assertNoSeqScan(() -> userRepository.findByDocumentNumber("plan-1"));
+        assertNoSeqScan(() -> userRepository.findPage(start, 0L, Limit.of(51)));
+    }
+
+    private void assertNoSeqScan(Runnable finder) {
+        String sql = transactionTemplate.execute(status -> {
+            RecordingStatementInspector.start();
+            finder.run();
+            return RecordingStatementInspector.lastSelect();
+        });
+
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + toPositionalParameters(sql), String.class);
+        });
+
+        String planText = String.join("\n", plan);
+        assertTrue(plan.stream().noneMatch(line -> line.contains("Seq Scan")),
+                () -> "Sequential scan for:\n" + sql + "\n" + planText);
+    }
+
+    // GENERIC_PLAN plans the statement without values, but needs $n placeholders instead of JDBC's ?
+    private String toPositionalParameters(String sql) {
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder result = new StringBuilder();
+        int index = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(result, "\\$" + (++index));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.robertoljr.sops.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every SQL statement Hibernate prepares on the current thread, so tests can inspect the
+ * exact SQL a repository finder produces without picking up statements from scheduled jobs.
+ * Registered through hibernate.session_factory.statement_inspector.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> recorded = statements.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+        return sql;
+    }
+
+    public static void start() {
+        statements.set(new ArrayList<>());
+    }
+
+    public static String lastSelect() {
+        List<String> recorded = statements.get();
+        statements.remove();
+        for (int i = recorded.size() - 1; i >= 0; i--) {
+            if (recorded.get(i).stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                return recorded.get(i);
+            }
+        }
+        throw new IllegalStateException("No SELECT statement was recorded");
+    }
+}
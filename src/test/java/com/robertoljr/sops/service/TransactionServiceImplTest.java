@@ -0,0 +1,212 @@
+package com.robertoljr.sops.service;
+
+import com.robertoljr.sops.client.AuthorizerClient;
+import com.robertoljr.sops.constant.transaction.BatchItemStatus;
+import com.robertoljr.sops.constant.transaction.TransferExecutionMode;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.dto.transaction.CreateTransactionBatchDTO;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionBatchDTO;
+import com.robertoljr.sops.dto.transaction.TransactionBatchItemDTO;
+import com.robertoljr.sops.entity.Transaction;
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.mapper.TransactionMapperImpl;
+import com.robertoljr.sops.mapper.UserMapper;
+import com.robertoljr.sops.metrics.TransferMetrics;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.TransactionRepository;
+import com.robertoljr.sops.repository.UserRepository;
+import com.robertoljr.sops.repository.projection.TransferPartyView;
+import com.robertoljr.sops.service.balance.BalanceUpdateStrategy;
+import com.robertoljr.sops.service.idempotency.IdempotencyKeyStore;
+import com.robertoljr.sops.service.ledger.LedgerEngine;
+import com.robertoljr.sops.service.validation.TransferViolation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs batches through the JPA mode against mocked repositories, where a chunk that fails as a
+ * whole falls back to one transaction per item.
+ */
+class TransactionServiceImplTest {
+
+    private static final long ALICE = 1L;
+    private static final long BOB = 2L;
+    private static final long CAROL = 3L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final AuthorizerClient authorizerClient = mock(AuthorizerClient.class);
+    private final BalanceUpdateStrategy balanceUpdateStrategy = mock(BalanceUpdateStrategy.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AtomicLong transactionIds = new AtomicLong();
+    private final Map<Long, User> users = Map.of(
+            ALICE, user(ALICE, "100.00"),
+            BOB, user(BOB, "0.00"),
+            CAROL, user(CAROL, "100.00"));
+
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    void setUp() {
+        // Synchronization is active inside the callback, as TransferMetrics.timeCommit expects
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        when(userRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(users::get).toList());
+        when(userRepository.findTransferPartiesByIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(users::get).map(TransactionServiceImplTest::party).toList());
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(users.get(invocation.<Long>getArgument(0))));
+        when(transactionRepository.save(any())).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        when(transactionRepository.saveAll(any())).thenAnswer(invocation ->
+                invocation.<List<Transaction>>getArgument(0).stream().map(this::withId).toList());
+        when(authorizerClient.authorize()).thenReturn(true);
+
+        @SuppressWarnings("unchecked")
+        ObjectProvider<LedgerEngine> ledgerEngineProvider = mock(ObjectProvider.class);
+        transactionService = new TransactionServiceImpl(userRepository, transactionRepository, new TransactionMapperImpl(),
+                notificationService, authorizerClient, mock(UserMapper.class), balanceUpdateStrategy, TransferExecutionMode.JPA,
+                transactionTemplate, ledgerEngineProvider, 10, false, new TransferMetrics(new SimpleMeterRegistry()), 3000,
+                mock(IdempotencyKeyStore.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionService.stop();
+    }
+
+    @Test
+    void appliesAChunkInOneTransaction() {
+        ResponseTransactionBatchDTO response = transactionService.createTransactions(batch(
+                transfer(ALICE, BOB, "10.00"),
+                transfer(CAROL, BOB, "5.00")));
+
+        assertEquals(List.of(BatchItemStatus.SUCCEEDED, BatchItemStatus.SUCCEEDED), statuses(response));
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(transactionRepository).saveAll(any());
+    }
+
+    @Test
+    void retriesEachItemOfAFailedChunkOnItsOwn() {
+        // CAROL's first debit loses a lock race, which rolls back the whole chunk
+        AtomicBoolean contended = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (contended.getAndSet(false)) {
+                throw new CannotAcquireLockException("deadlock detected");
+            }
+            return null;
+        }).when(balanceUpdateStrategy).transfer(eq(CAROL), eq(BOB), any());
+
+        ResponseTransactionBatchDTO response = transactionService.createTransactions(batch(
+                transfer(ALICE, BOB, "10.00"),
+                transfer(CAROL, BOB, "5.00"),
+                transfer(ALICE, BOB, "500.00")));
+
+        assertEquals(List.of(BatchItemStatus.SUCCEEDED, BatchItemStatus.SUCCEEDED, BatchItemStatus.REJECTED), statuses(response));
+        assertEquals(TransferViolation.INSUFFICIENT_BALANCE.message(), response.results().get(2).error());
+        assertEquals(List.of(0, 1, 2), response.results().stream().map(TransactionBatchItemDTO::index).toList());
+        // The chunk, then one transaction for each item that passed validation
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(transactionRepository, times(2)).save(any());
+        assertEquals(2, response.succeeded());
+        assertEquals(1, response.rejected());
+    }
+
+    @Test
+    void keepsRejectionsOfItemsThatFailAgainOnTheirOwn() {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("connection reset");
+        }).when(balanceUpdateStrategy).transfer(eq(CAROL), eq(BOB), any());
+
+        ResponseTransactionBatchDTO response = transactionService.createTransactions(batch(
+                transfer(ALICE, BOB, "10.00"),
+                transfer(CAROL, BOB, "5.00")));
+
+        assertEquals(List.of(BatchItemStatus.SUCCEEDED, BatchItemStatus.REJECTED), statuses(response));
+        assertEquals("An unexpected error occurred while creating the transaction.", response.results().get(1).error());
+    }
+
+    private Transaction withId(Transaction transaction) {
+        transaction.setId(transactionIds.incrementAndGet());
+        return transaction;
+    }
+
+    private static List<BatchItemStatus> statuses(ResponseTransactionBatchDTO response) {
+        return response.results().stream().map(TransactionBatchItemDTO::status).toList();
+    }
+
+    private static CreateTransactionBatchDTO batch(CreateTransactionDTO... transfers) {
+        CreateTransactionBatchDTO batch = new CreateTransactionBatchDTO();
+        batch.setTransactions(List.of(transfers));
+        return batch;
+    }
+
+    private static CreateTransactionDTO transfer(long senderId, long recipientId, String amount) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setSenderId(senderId);
+        dto.setRecipientId(recipientId);
+        dto.setAmount(Money.of(amount));
+        return dto;
+    }
+
+    private static User user(long id, String balance) {
+        User user = new User();
+        user.setId(id);
+        user.setLegalName("User " + id);
+        user.setEmail("user-" + id + "@test.local");
+        user.setUserType(UserType.REGULAR);
+        user.setBalance(Money.of(balance));
+        return user;
+    }
+
+    private static TransferPartyView party(User user) {
+        return new TransferPartyView() {
+            @Override
+            public Long getId() {
+                return user.getId();
+            }
+
+            @Override
+            public UserType getUserType() {
+                return user.getUserType();
+            }
+
+            @Override
+            public Money getBalance() {
+                return user.getBalance();
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.robertoljr.sops.service.balance;
+
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.service.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pays one merchant from many senders through the striped strategy while the consolidation job
+ * runs alongside, and checks that no credit is lost or counted twice on the way from the stripes
+ * into users.balance.
+ * <p>
+ * Needs the local PostgreSQL from application.properties, so it is tagged "postgres" and left out
+ * of the default run: {@code mvn test -Ppostgres}.
+ */
+@Tag("postgres")
+@SpringBootTest
+// The scheduled run is pushed out so the test decides when consolidation happens
+@TestPropertySource(properties = {
+        "sops.balance-striping.enabled=true",
+        "sops.balance-striping.stripes=4",
+        "sops.balance-striping.consolidation-interval-ms=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StripedBalanceTest {
+
+    private static final String SEED_DOMAIN = "@stripes.local";
+    private static final int SENDERS = 8;
+    private static final int TRANSFERS_PER_SENDER = 25;
+    private static final Money AMOUNT = Money.of("1.25");
+
+    @Autowired
+    private BalanceUpdateStrategy balanceUpdateStrategy;
+
+    @Autowired
+    private BalanceStripeConsolidationJob consolidationJob;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long merchantId;
+    private List<Long> senderIds;
+
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    INSERT INTO users (legal_name, document_type, document_number, email, password, balance, user_type)
+                    SELECT 'Stripes ' || g, 'CPF', 'stripes-' || g, 'stripes-' || g || ?, 'stripes', 100, 'REGULAR'
+                    FROM generate_series(1, ?) g
+                    """, SEED_DOMAIN, SENDERS);
+            jdbcTemplate.update("""
+                    INSERT INTO users (legal_name, document_type, document_number, email, password, balance, user_type)
+                    VALUES ('Stripes Merchant', 'CNPJ', 'stripes-merchant', 'merchant' || ?, 'stripes', 10, 'MERCHANT')
+                    """, SEED_DOMAIN);
+        });
+        merchantId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, "merchant" + SEED_DOMAIN);
+        senderIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? AND user_type = 'REGULAR' ORDER BY id",
+                Long.class, "%" + SEED_DOMAIN);
+    }
+
+    @AfterAll
+    void deleteSeed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM balance_stripes WHERE user_id IN (SELECT id FROM users WHERE email LIKE ?)", "%" + SEED_DOMAIN);
+            jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "%" + SEED_DOMAIN);
+        });
+    }
+
+    @Test
+    void consolidationPreservesTheTotal() {
+        Money paid = Money.ofCents(AMOUNT.cents() * SENDERS * TRANSFERS_PER_SENDER);
+        AtomicBoolean paying = new AtomicBoolean(true);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(SENDERS + 1)) {
+            CompletableFuture<Void> consolidating = CompletableFuture.runAsync(() -> {
+                while (paying.get()) {
+                    consolidationJob.consolidate();
+                }
+            }, executor);
+            CompletableFuture.allOf(senderIds.stream()
+                    .map(senderId -> CompletableFuture.runAsync(() -> pay(senderId), executor))
+                    .toArray(CompletableFuture[]::new)).join();
+            paying.set(false);
+            consolidating.join();
+        }
+
+        Money expected = Money.of("10.00").plus(paid);
+        assertEquals(expected, userService.findUserById(merchantId).balance());
+        assertEquals(expected, Money.of(balance(merchantId).add(stripes(merchantId))));
+
+        consolidationJob.consolidate();
+
+        assertEquals(BigDecimal.ZERO, stripes(merchantId).stripTrailingZeros());
+        assertEquals(expected, Money.of(balance(merchantId)));
+        assertEquals(expected, userService.findUserById(merchantId).balance());
+        for (Long senderId : senderIds) {
+            assertEquals(Money.of("100.00").minus(Money.ofCents(AMOUNT.cents() * TRANSFERS_PER_SENDER)), Money.of(balance(senderId)));
+        }
+    }
+
+    private void pay(Long senderId) {
+        IntStream.range(0, TRANSFERS_PER_SENDER).forEach(i -> transactionTemplate.executeWithoutResult(status ->
+                balanceUpdateStrategy.transfer(senderId, merchantId, AMOUNT)));
+    }
+
+    private BigDecimal balance(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM users WHERE id = ?", BigDecimal.class, userId);
+    }
+
+    private BigDecimal stripes(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM balance_stripes WHERE user_id = ?", BigDecimal.class, userId);
+    }
+}
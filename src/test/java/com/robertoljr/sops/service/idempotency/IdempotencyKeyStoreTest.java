@@ -0,0 +1,226 @@
+package com.robertoljr.sops.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.dto.transaction.CreateTransactionDTO;
+import com.robertoljr.sops.dto.transaction.ResponseTransactionDTO;
+import com.robertoljr.sops.entity.IdempotencyKey;
+import com.robertoljr.sops.exception.transaction.IdempotencyKeyMismatchException;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
+import com.robertoljr.sops.exception.transaction.TransactionNotAllowedException;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the store against a mocked repository whose {@code claim} succeeds unless
+ * {@link #claimed} is set, as if the key were already in the table.
+ */
+class IdempotencyKeyStoreTest {
+
+    private static final String KEY = "key-1";
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger transfers = new AtomicInteger();
+
+    private IdempotencyKeyStore idempotencyKeyStore;
+    private boolean claimed;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(idempotencyKeyRepository.claim(anyString(), anyString(), any())).thenAnswer(invocation -> claimed ? 0 : 1);
+
+        idempotencyKeyStore = new IdempotencyKeyStore(idempotencyKeyRepository, transactionTemplate, objectMapper, 100, 60_000, meterRegistry);
+    }
+
+    @Test
+    void executesOnceAndReplaysRetries() {
+        ResponseTransactionDTO first = idempotencyKeyStore.execute(KEY, request("10.00"), this::transfer);
+        ResponseTransactionDTO retry = idempotencyKeyStore.execute(KEY, request("10.00"), this::transfer);
+
+        assertEquals(1, transfers.get());
+        assertEquals(first, retry);
+        verify(idempotencyKeyRepository).complete(eq(KEY), eq(first.id()), anyString(), any());
+        assertEquals(1, count("EXECUTED"));
+        assertEquals(1, count("CACHED"));
+    }
+
+    @Test
+    void rejectsTheSameKeyWithADifferentRequest() {
+        idempotencyKeyStore.execute(KEY, request("10.00"), this::transfer);
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyKeyStore.execute(KEY, request("10.01"), this::transfer));
+        assertEquals(1, transfers.get());
+        assertEquals(1, count("MISMATCH"));
+    }
+
+    @Test
+    void releasesTheKeyWhenTheTransferWasRejected() {
+        assertThrows(TransactionNotAllowedException.class, () -> idempotencyKeyStore.execute(KEY, request("10.00"), () -> {
+            throw new TransactionNotAllowedException("Insufficient balance.");
+        }));
+
+        verify(idempotencyKeyRepository).release(KEY);
+        verify(idempotencyKeyRepository, never()).fail(anyString(), any());
+
+        // Released, so a retry transfers
+        idempotencyKeyStore.execute(KEY, request("10.00"), this::transfer);
+        assertEquals(1, transfers.get());
+    }
+
+    @Test
+    void keepsTheKeyFailedWhenTheOutcomeIsUnknown() {
+        assertThrows(IllegalStateException.class, () -> idempotencyKeyStore.execute(KEY, request("10.00"), () -> {
+            throw new IllegalStateException("Could not enqueue the notification");
+        }));
+
+        verify(idempotencyKeyRepository).fail(eq(KEY), any());
+        verify(idempotencyKeyRepository, never()).release(anyString());
+    }
+
+    @Test
+    void answersAFailedStoredKeyWithAConflict() {
+        IdempotencyKey stored = storedKey(request("10.00"));
+        stored.setFailedAt(Instant.now());
+        claimed = true;
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored));
+
+        assertThrows(TransactionConflictException.class, () -> idempotencyKeyStore.execute(KEY, request("10.00"), this::transfer));
+        assertEquals(0, transfers.get());
+        assertEquals(1, count("UNKNOWN"));
+    }
+
+    @Test
+    void answersAKeyClaimedElsewhereWithAConflict() {
+        IdempotencyKey stored = storedKey(request("10.00"));
+        claimed = true;
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored));
+
+        assertThrows(TransactionConflictException.class, () -> idempotencyKeyStore.execute(KEY, request("10.00"), this::transfer));
+        assertEquals(0, transfers.get());
+        assertEquals(1, count("IN_PROGRESS"));
+    }
+
+    @Test
+    void replaysAResultStoredByAnotherInstance() throws Exception {
+        IdempotencyKey stored = storedKey(request("10.00"));
+        ResponseTransactionDTO response = response(7L, "10.00");
+        stored.setResponse(objectMapper.writeValueAsString(response));
+        claimed = true;
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored));
+
+        assertEquals(response, idempotencyKeyStore.execute(KEY, request("10.00"), this::transfer));
+        assertEquals(0, transfers.get());
+        assertEquals(1, count("STORED"));
+    }
+
+    @Test
+    void coalescesConcurrentDuplicatesOntoTheFirstRequest() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseTransactionDTO> slowTransfer = () -> {
+            running.countDown();
+            await(release);
+            return transfer();
+        };
+
+        CompletableFuture<ResponseTransactionDTO> first = CompletableFuture.supplyAsync(() ->
+                idempotencyKeyStore.execute(KEY, request("10.00"), slowTransfer));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseTransactionDTO> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyKeyStore.execute(KEY, request("10.00"), this::transfer));
+        while (count("COALESCED") == 0) {
+            assertFalse(duplicate.isDone(), "the duplicate did not wait for the first request");
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, transfers.get());
+        verify(idempotencyKeyRepository).claim(eq(KEY), anyString(), any());
+    }
+
+    private ResponseTransactionDTO transfer() {
+        return response((long) transfers.incrementAndGet(), "10.00");
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("sops.idempotency.requests", "outcome", outcome).count();
+    }
+
+    // A row for KEY claimed by the same request, with the hash a store computes when it claims it
+    private IdempotencyKey storedKey(CreateTransactionDTO dto) {
+        String[] requestHash = new String[1];
+        when(idempotencyKeyRepository.claim(eq("hash-probe"), anyString(), any())).thenAnswer(invocation -> {
+            requestHash[0] = invocation.getArgument(1);
+            return 0;
+        });
+        when(idempotencyKeyRepository.findById("hash-probe")).thenReturn(Optional.empty());
+        IdempotencyKeyStore probe = new IdempotencyKeyStore(idempotencyKeyRepository, transactionTemplate, objectMapper, 100, 60_000, new SimpleMeterRegistry());
+        assertThrows(TransactionConflictException.class, () -> probe.execute("hash-probe", dto, this::transfer));
+
+        IdempotencyKey stored = new IdempotencyKey();
+        stored.setKey(KEY);
+        stored.setRequestHash(requestHash[0]);
+        stored.setCreatedAt(Instant.now());
+        return stored;
+    }
+
+    private static CreateTransactionDTO request(String amount) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setSenderId(1L);
+        dto.setRecipientId(2L);
+        dto.setAmount(Money.of(amount));
+        dto.setDescription("rent");
+        return dto;
+    }
+
+    private static ResponseTransactionDTO response(Long id, String amount) {
+        Instant now = Instant.parse("2025-03-01T12:00:00Z");
+        return new ResponseTransactionDTO(id, 1L, 2L, Money.of(amount), Status.SUCCEEDED, "rent", now, now);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.robertoljr.sops.service.ledger;
+
+import com.robertoljr.sops.constant.transaction.Status;
+import com.robertoljr.sops.constant.user.UserType;
+import com.robertoljr.sops.entity.Transaction;
+import com.robertoljr.sops.entity.User;
+import com.robertoljr.sops.exception.transaction.TransactionConflictException;
+import com.robertoljr.sops.exception.transaction.TransactionCreationException;
+import com.robertoljr.sops.money.Money;
+import com.robertoljr.sops.repository.TransactionRepository;
+import com.robertoljr.sops.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the ledger against mocked repositories: the journal fails any write that carries the
+ * description {@value #FAILING}, and can be held on {@value #HELD} until {@link #release} is counted down.
+ * Balance credits only reach {@link #balances}, which evicted accounts are reloaded from, when their
+ * transaction completes, as they would in the database.
+ */
+class LedgerEngineTest {
+
+    private static final String FAILING = "failing";
+    private static final String HELD = "held";
+    private static final long SENDER = 1L;
+    private static final long RECIPIENT = 2L;
+    private static final long OTHER = 3L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AtomicLong transactionIds = new AtomicLong();
+    private final Map<Long, AtomicLong> balances = Map.of(
+            SENDER, new AtomicLong(10_000),
+            RECIPIENT, new AtomicLong(),
+            OTHER, new AtomicLong());
+    private final ThreadLocal<Map<Long, Long>> uncommitted = ThreadLocal.withInitial(HashMap::new);
+    private final CountDownLatch flushing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private LedgerEngine ledgerEngine;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(user(invocation.getArgument(0))));
+        when(userRepository.getReferenceById(anyLong())).thenAnswer(invocation -> new User());
+        when(userRepository.credit(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            uncommitted.get().merge(invocation.getArgument(0), invocation.<Long>getArgument(1), Math::addExact);
+            return 1;
+        });
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            try {
+                Object result = invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+                uncommitted.get().forEach((userId, delta) -> balances.get(userId).addAndGet(delta));
+                return result;
+            } finally {
+                uncommitted.get().clear();
+            }
+        });
+        when(transactionRepository.saveAll(any())).thenAnswer(invocation -> save(invocation.getArgument(0)));
+
+        ledgerEngine = new LedgerEngine(userRepository, transactionRepository, transactionTemplate, 4, 1024, 500, false);
+        ledgerEngine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        ledgerEngine.stop();
+    }
+
+    @Test
+    void creditIsNotSpendableUntilItsEntryIsPersisted() throws InterruptedException {
+        CompletableFuture<LedgerReceipt> credit = transfer(SENDER, RECIPIENT, "50.00", HELD);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+
+        assertRejected(transfer(RECIPIENT, OTHER, "50.00", null));
+
+        release.countDown();
+        assertEquals(Status.SUCCEEDED, credit.join().transaction().getStatus());
+        assertNotNull(transferRetrying(RECIPIENT, OTHER, "50.00").join());
+    }
+
+    @Test
+    void failedEntryIsUndoneWithoutTakingBackSpentMoney() throws InterruptedException {
+        CompletableFuture<LedgerReceipt> failing = transfer(SENDER, RECIPIENT, "50.00", FAILING);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+
+        // The next batch tries to pass the unpersisted credit on
+        assertRejected(transfer(RECIPIENT, OTHER, "50.00", null));
+
+        release.countDown();
+        assertThrows(CompletionException.class, failing::join);
+        assertRejected(transferRetrying(RECIPIENT, OTHER, "0.01"));
+        // The sender's hold is given back in full
+        assertNotNull(transferRetrying(SENDER, OTHER, "100.00").join());
+    }
+
+    @Test
+    void failingEntryDoesNotFailTheRestOfItsBatch() throws InterruptedException {
+        CompletableFuture<LedgerReceipt> held = transfer(SENDER, OTHER, "10.00", HELD);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+
+        // Both queue behind the held batch and are flushed together
+        CompletableFuture<LedgerReceipt> failing = transfer(SENDER, RECIPIENT, "20.00", FAILING);
+        CompletableFuture<LedgerReceipt> succeeding = transfer(SENDER, OTHER, "30.00", null);
+        failing.exceptionally(ex -> null);
+        Thread.sleep(200);
+
+        release.countDown();
+        assertNotNull(held.join());
+        assertNotNull(succeeding.join());
+        assertThrows(CompletionException.class, failing::join);
+        // 100 - 10 - 30 is left; the 20 of the failed entry was given back
+        assertNotNull(transferRetrying(SENDER, RECIPIENT, "60.00").join());
+        assertRejected(transferRetrying(SENDER, RECIPIENT, "0.01"));
+    }
+
+    private CompletableFuture<LedgerReceipt> transfer(long senderId, long recipientId, String amount, String description) {
+        return ledgerEngine.transfer(senderId, recipientId, Money.of(amount), description, true);
+    }
+
+    // Settling may evict an account between its load and the transfer, which then asks to be retried
+    private CompletableFuture<LedgerReceipt> transferRetrying(long senderId, long recipientId, String amount) {
+        while (true) {
+            CompletableFuture<LedgerReceipt> result = transfer(senderId, recipientId, amount, null);
+            try {
+                result.join();
+                return result;
+            } catch (CompletionException ex) {
+                if (!(ex.getCause() instanceof TransactionConflictException)) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    private void assertRejected(CompletableFuture<LedgerReceipt> result) {
+        CompletionException ex = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TransactionCreationException.class, ex.getCause());
+    }
+
+    private List<Transaction> save(List<Transaction> transactions) throws InterruptedException {
+        boolean failing = transactions.stream().anyMatch(transaction -> FAILING.equals(transaction.getDescription()));
+        boolean held = transactions.stream().anyMatch(transaction -> HELD.equals(transaction.getDescription()));
+        if (failing || held) {
+            flushing.countDown();
+            release.await();
+        }
+        if (failing) {
+            throw new IllegalStateException("Journal write failed");
+        }
+        transactions.forEach(transaction -> transaction.setId(transactionIds.incrementAndGet()));
+        return transactions;
+    }
+
+    private User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUserType(UserType.REGULAR);
+        user.setBalance(Money.ofCents(balances.get(id).get()));
+        user.setEmail("user" + id + "@ledger.local");
+        user.setLegalName("User " + id);
+        return user;
+    }
+}
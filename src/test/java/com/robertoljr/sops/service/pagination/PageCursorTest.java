@@ -0,0 +1,75 @@
+package com.robertoljr.sops.service.pagination;
+
+import com.robertoljr.sops.dto.CursorPageDTO;
+import com.robertoljr.sops.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        PageCursor cursor = new PageCursor(Instant.parse("2025-03-01T12:34:56.789012Z"), 42L);
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, PageCursor.decode(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token must be URL-safe without padding: " + token);
+    }
+
+    @Test
+    void startsFromFirstWithoutToken() {
+        assertEquals(PageCursor.FIRST, PageCursor.decode(null));
+        assertEquals(PageCursor.FIRST, PageCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode(token("2025-03-01T00:00:00Z")));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode(token("yesterday|1")));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode(token("2025-03-01T00:00:00Z|one")));
+    }
+
+    @Test
+    void clampsPageSize() {
+        assertEquals(1, PageCursor.pageSize(0));
+        assertEquals(1, PageCursor.pageSize(-5));
+        assertEquals(20, PageCursor.pageSize(20));
+        assertEquals(PageCursor.MAX_PAGE_SIZE, PageCursor.pageSize(Integer.MAX_VALUE));
+        assertEquals(PageCursor.MAX_PAGE_SIZE + 1, PageCursor.limitFor(10_000).max());
+    }
+
+    @Test
+    void pointsTheNextCursorAtTheLastRowOfAFullPage() {
+        List<Long> rows = IntStream.rangeClosed(1, 4).mapToObj(Long::valueOf).toList();
+
+        CursorPageDTO<Long> page = PageCursor.toPage(rows, 3, this::position, Function.identity());
+
+        assertEquals(List.of(1L, 2L, 3L), page.items());
+        assertEquals(position(3L), PageCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void hasNoNextCursorOnTheLastPage() {
+        CursorPageDTO<Long> page = PageCursor.toPage(List.of(1L, 2L, 3L), 3, this::position, Function.identity());
+
+        assertEquals(List.of(1L, 2L, 3L), page.items());
+        assertNull(page.nextCursor());
+    }
+
+    private PageCursor position(Long row) {
+        return new PageCursor(Instant.EPOCH.plusSeconds(row), row);
+    }
+
+    private static String token(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes());
+    }
+}
@@ -0,0 +1,33 @@
+package com.robertoljr.sops.stub;
+
+import java.util.SplittableRandom;
+
+/**
+ * Shapes of the delay the provider stub adds before answering. Every sample is capped at the
+ * configured maximum.
+ */
+public enum LatencyDistribution {
+    // Always the median
+    FIXED,
+    // Evenly spread between 0 and twice the median
+    UNIFORM,
+    // Memoryless delays with the given median; mostly fast with an occasional long one
+    EXPONENTIAL,
+    // Right-skewed like most real service latencies; sigma widens the tail
+    LOGNORMAL;
+
+    public long sampleMillis(double medianMs, double sigma, long maxMs, SplittableRandom random) {
+        double sample = switch (this) {
+            case FIXED -> medianMs;
+            case UNIFORM -> random.nextDouble() * 2 * medianMs;
+            case EXPONENTIAL -> -Math.log(1 - random.nextDouble()) * medianMs / Math.log(2);
+            case LOGNORMAL -> medianMs * Math.exp(sigma * gaussian(random));
+        };
+        return Math.min(maxMs, Math.round(sample));
+    }
+
+    // Box-Muller; SplittableRandom has no nextGaussian
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
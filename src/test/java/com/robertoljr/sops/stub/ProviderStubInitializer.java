@@ -0,0 +1,45 @@
+package com.robertoljr.sops.stub;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Starts a {@link ProviderStubServer} for every context with the "test" or "bench" profile, before
+ * any bean is created, and overrides sops.stub.port with the port it bound, so the authorizer and
+ * notifier URLs built from that property reach it. With the default port 0 each context gets its own
+ * free port, so the cached contexts of several test classes can share one JVM.
+ * <p>
+ * Registered in META-INF/spring.factories, which only the test classpath contains.
+ */
+public class ProviderStubInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        ConfigurableEnvironment environment = context.getEnvironment();
+        if (!environment.matchesProfiles("test | bench")) {
+            return;
+        }
+
+        ProviderStubServer server;
+        try {
+            server = new ProviderStubServer(environment.getProperty("sops.stub.port", Integer.class, 0), environment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not start the provider stub", ex);
+        }
+
+        environment.getPropertySources().addFirst(new MapPropertySource("providerStub", Map.of("sops.stub.port", server.port())));
+        context.getBeanFactory().registerSingleton("providerStubServer", server);
+        context.addApplicationListener(event -> {
+            if (event instanceof ContextClosedEvent) {
+                server.stop();
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.robertoljr.sops.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded stand-in for the external authorizer and notifier, started by {@link ProviderStubInitializer}
+ * with the "test" and "bench" profiles so tests and benchmarks never call the public providers. It
+ * listens on its own port and answers like the real services after a delay drawn from the configured
+ * {@link StubBehavior}: slow, erroring, denying, timing out or flapping on a schedule.
+ */
+public class ProviderStubServer {
+
+    private static final byte[] AUTHORIZED = json("{\"status\":\"success\",\"data\":{\"authorization\":true}}");
+    private static final byte[] DENIED = json("{\"status\":\"fail\",\"data\":{\"authorization\":false}}");
+    private static final byte[] NOTIFIER_UNAVAILABLE = json("{\"status\":\"error\",\"message\":\"The service is not available, try again later\"}");
+    private static final byte[] ERROR = json("{\"status\":\"error\"}");
+
+    private final Logger logger = LoggerFactory.getLogger(ProviderStubServer.class);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final StubBehavior authorizer;
+    private final StubBehavior notifier;
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    // Port 0 binds any free port; port() tells which one
+    public ProviderStubServer(int port, Environment environment) throws IOException {
+        this.authorizer = StubBehavior.from(environment, "sops.stub.authorizer");
+        this.notifier = StubBehavior.from(environment, "sops.stub.notifier");
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/api/v2/authorize", exchange -> handle(exchange, "authorizer", authorizer, true));
+        server.createContext("/api/v1/notify", exchange -> handle(exchange, "notifier", notifier, false));
+        server.start();
+        logger.info("Provider stub listening on port {}; authorizer {}, notifier {}", port(), authorizer, notifier);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("Provider stub stopped; answers given: {}", outcomeCounts());
+    }
+
+    // Provider and outcome -> requests answered that way, e.g. "authorizer DENIED" -> 12
+    public Map<String, Long> outcomeCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return counts;
+    }
+
+    private void handle(HttpExchange exchange, String provider, StubBehavior behavior, boolean isAuthorizer) {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            // Each request runs on its own virtual thread, so a per-request generator needs no locking
+            SplittableRandom random = new SplittableRandom();
+            Thread.sleep(behavior.distribution().sampleMillis(behavior.medianMs(), behavior.sigma(), behavior.maxMs(), random));
+
+            double draw = random.nextDouble();
+            if (behavior.inOutage(System.currentTimeMillis())) {
+                count(provider, "OUTAGE");
+                respond(exchange, 503, ERROR);
+            } else if (draw < behavior.timeoutRate()) {
+                count(provider, "TIMEOUT");
+                // Closing without a response makes the client see a dropped connection after the wait
+                Thread.sleep(behavior.timeoutMs());
+            } else if (draw < behavior.timeoutRate() + behavior.errorRate()) {
+                count(provider, "ERROR");
+                respond(exchange, isAuthorizer ? 500 : 504, isAuthorizer ? ERROR : NOTIFIER_UNAVAILABLE);
+            } else if (isAuthorizer && draw < behavior.timeoutRate() + behavior.errorRate() + behavior.denyRate()) {
+                count(provider, "DENIED");
+                respond(exchange, 403, DENIED);
+            } else {
+                count(provider, "OK");
+                respond(exchange, isAuthorizer ? 200 : 204, isAuthorizer ? AUTHORIZED : null);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            logger.error("Exception: {}", ex.getMessage());
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private void count(String provider, String outcome) {
+        outcomes.computeIfAbsent(provider + " " + outcome, key -> new LongAdder()).increment();
+    }
+
+    private static byte[] json(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
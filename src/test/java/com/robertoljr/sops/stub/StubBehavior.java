@@ -0,0 +1,50 @@
+package com.robertoljr.sops.stub;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * How one stubbed provider answers, read from {@code <prefix>.*} properties.
+ *
+ * @param distribution     shape of the added latency
+ * @param medianMs         median added latency
+ * @param sigma            spread of the LOGNORMAL distribution
+ * @param maxMs            cap on the added latency
+ * @param errorRate        share of requests answered with a server error
+ * @param denyRate         share of requests answered with 403 (only meaningful for the authorizer)
+ * @param timeoutRate      share of requests held for timeoutMs and then dropped without an answer
+ * @param timeoutMs        how long a timed-out request is held
+ * @param outagePeriodMs   length of a flapping cycle; 0 disables outages
+ * @param outageDurationMs how much of each cycle every request fails
+ */
+public record StubBehavior(
+        LatencyDistribution distribution,
+        double medianMs,
+        double sigma,
+        long maxMs,
+        double errorRate,
+        double denyRate,
+        double timeoutRate,
+        long timeoutMs,
+        long outagePeriodMs,
+        long outageDurationMs
+) {
+
+    public static StubBehavior from(Environment environment, String prefix) {
+        return new StubBehavior(
+                environment.getProperty(prefix + ".latency.distribution", LatencyDistribution.class, LatencyDistribution.FIXED),
+                environment.getProperty(prefix + ".latency.median-ms", Double.class, 0.0),
+                environment.getProperty(prefix + ".latency.sigma", Double.class, 0.5),
+                environment.getProperty(prefix + ".latency.max-ms", Long.class, 10_000L),
+                environment.getProperty(prefix + ".error-rate", Double.class, 0.0),
+                environment.getProperty(prefix + ".deny-rate", Double.class, 0.0),
+                environment.getProperty(prefix + ".timeout-rate", Double.class, 0.0),
+                environment.getProperty(prefix + ".timeout-ms", Long.class, 10_000L),
+                environment.getProperty(prefix + ".outage.period-ms", Long.class, 0L),
+                environment.getProperty(prefix + ".outage.duration-ms", Long.class, 0L)
+        );
+    }
+
+    public boolean inOutage(long nowMillis) {
+        return outagePeriodMs > 0 && nowMillis % outagePeriodMs < outageDurationMs;
+    }
+}